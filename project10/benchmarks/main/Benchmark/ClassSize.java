@@ -0,0 +1,36 @@
+package main.Benchmark;
+
+import java.io.*;
+import main.Corpus.JackCorpusGenerator;
+
+/**
+ * The sizes of the classes benchmarked end to end, by their number of subroutines. The classes are generated by
+ * JackCorpusGenerator, with its defaults otherwise, so the inputs don't depend on files outside the repo.
+ */
+public enum ClassSize {
+    SMALL(4),
+    MEDIUM(100),
+    HUGE(5000);
+
+    private static final String CLASS_NAME = "Generated";
+
+    private final int subroutines;
+
+    ClassSize(int subroutines) {
+        this.subroutines = subroutines;
+    }
+
+    /**
+     * @return the source of a class of this size; the same source every time.
+     */
+    String generateClass() {
+        StringWriter source = new StringWriter();
+        try {
+            new JackCorpusGenerator().setSubroutines(subroutines).writeClass(source, CLASS_NAME);
+        } catch (IOException e) {
+            // A StringWriter never fails.
+            throw new UncheckedIOException(e);
+        }
+        return source.toString();
+    }
+}
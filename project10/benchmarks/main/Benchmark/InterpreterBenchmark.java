@@ -0,0 +1,63 @@
+package main.Benchmark;
+
+import main.Interpreter.Interpreter;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the analysis of a whole Jack file end to end, from reading the file to verifying every method body, on
+ * small, medium and huge generated classes, and the same analysis of the source given in memory.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class InterpreterBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private ClassSize size;
+
+    private String source;
+    private Path jackFile;
+
+    @Setup
+    public void writeSource() throws IOException {
+        source = size.generateClass();
+        jackFile = Files.createTempFile("Generated", ".jack");
+        Files.write(jackFile, source.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @TearDown
+    public void deleteSource() throws IOException {
+        Files.deleteIfExists(jackFile);
+    }
+
+    /**
+     * @return the interpreter, after interpreting the file.
+     * @throws IOException if the file can't be read.
+     */
+    @Benchmark
+    public Interpreter interpret() throws IOException {
+        Interpreter interpreter = new Interpreter(jackFile.toString());
+        interpreter.interpret();
+        return interpreter;
+    }
+
+    /**
+     * @return the interpreter, after interpreting the source from memory.
+     * @throws IOException never, as the source isn't read.
+     */
+    @Benchmark
+    public Interpreter interpretSource() throws IOException {
+        Interpreter interpreter = Interpreter.forSource(jackFile.toString(), source);
+        interpreter.interpret();
+        return interpreter;
+    }
+}
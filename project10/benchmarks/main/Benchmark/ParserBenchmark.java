@@ -0,0 +1,93 @@
+package main.Benchmark;
+
+import main.Interpreter.Parser;
+import main.Interpreter.StatementType;
+import main.Lexer.TokenBuffer;
+import main.Lexer.TokenType;
+import main.Lexer.Tokenizer;
+import main.Scope.MethodSymbol;
+import main.Scope.Scope;
+import main.Scope.VariableSymbol;
+import main.Scope.VariableSymbolBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the time to parse a single statement, per statement kind. Every invocation parses a run of statements of
+ * the same kind with a new parser, so the cost of creating the parser is spread over the run.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParserBenchmark {
+
+    private static final int STATEMENTS_PER_INVOCATION = 64;
+
+    /**
+     * The statement kinds benchmarked, each with a typical statement of its kind.
+     */
+    public enum Kind {
+        LET("let sum = sum + (i * 2) - count;"),
+        IF("if (~ready & (sum > total)) { let total = sum; } else { let count = count + 1; }"),
+        WHILE("while (i < 10) { let i = i + 1; }"),
+        DO("do run(sum, i);"),
+        RETURN("return sum;");
+
+        private final String statement;
+
+        Kind(String statement) {
+            this.statement = statement;
+        }
+    }
+
+    @Param({"LET", "IF", "WHILE", "DO", "RETURN"})
+    private Kind kind;
+
+    private TokenBuffer tokens;
+    private Scope methodScope;
+
+    @Setup
+    public void createStatements() {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < STATEMENTS_PER_INVOCATION; i++) {
+            source.append(kind.statement).append('\n');
+        }
+        tokens = Tokenizer.tokenize(source);
+        methodScope = createMethodScope();
+    }
+
+    /* Create the scope of a method run(int amount, int mark) with locals i and sum, in a class with fields count and
+     * total and a static ready. */
+    private static Scope createMethodScope() {
+        Scope global = new Scope();
+        global.addVariable("count", new VariableSymbolBuilder(TokenType.INT).build());
+        global.addVariable("total", new VariableSymbolBuilder(TokenType.INT).build());
+        global.addVariable("ready", new VariableSymbolBuilder(TokenType.BOOLEAN).build());
+        MethodSymbol run = new MethodSymbol(new VariableSymbol(TokenType.INT));
+        run.addParameter("amount", new VariableSymbolBuilder(TokenType.INT).build());
+        run.addParameter("mark", new VariableSymbolBuilder(TokenType.INT).build());
+        global.addMethod("run", run);
+        Scope methodScope = new Scope(global.duplicate());
+        methodScope.addVariable("i", new VariableSymbolBuilder(TokenType.INT).build());
+        methodScope.addVariable("sum", new VariableSymbolBuilder(TokenType.INT).build());
+        return methodScope;
+    }
+
+    /**
+     * @return the kind of the last statement parsed.
+     */
+    @Benchmark
+    @OperationsPerInvocation(STATEMENTS_PER_INVOCATION)
+    public StatementType parseStatement() {
+        Parser parser = new Parser(tokens, methodScope);
+        StatementType statement = null;
+        for (int i = 0; i < STATEMENTS_PER_INVOCATION; i++) {
+            statement = parser.parseStatement();
+        }
+        return statement;
+    }
+}
@@ -0,0 +1,76 @@
+package main.Benchmark;
+
+import main.Lexer.TokenType;
+import main.Scope.Scope;
+import main.Scope.VariableSymbol;
+import main.Scope.VariableSymbolBuilder;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures variable lookups through scope chains of different depths, and the duplication of a class scope.
+ * Every scope of the chain holds a few variables of its own; the variable looked up is declared in the outermost
+ * scope, so a lookup walks the whole chain, as a lookup of a class variable from a nested block does.
+ */
+@State(org.openjdk.jmh.annotations.Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ScopeBenchmark {
+
+    private static final int VARIABLES_PER_SCOPE = 8;
+    private static final String OUTER_VARIABLE = "outer0";
+
+    @Param({"1", "4", "16"})
+    private int depth;
+
+    @Param({"16", "256"})
+    private int classVariables;
+
+    private Scope classScope;
+    private Scope innermost;
+    private String innerVariable;
+
+    @Setup
+    public void createScopes() {
+        classScope = new Scope();
+        for (int i = 0; i < classVariables; i++) {
+            classScope.addVariable("outer" + i, new VariableSymbolBuilder(TokenType.INT).build());
+        }
+        innermost = classScope;
+        for (int level = 1; level < depth; level++) {
+            innermost = new Scope(innermost);
+            for (int i = 0; i < VARIABLES_PER_SCOPE; i++) {
+                innermost.addVariable("level" + level + "_" + i, new VariableSymbolBuilder(TokenType.INT).build());
+            }
+        }
+        innerVariable = (depth > 1) ? "level" + (depth - 1) + "_0" : OUTER_VARIABLE;
+    }
+
+    /**
+     * @return the symbol of a variable declared in the outermost scope.
+     */
+    @Benchmark
+    public VariableSymbol lookupOuterVariable() {
+        return innermost.lookupVariable(OUTER_VARIABLE);
+    }
+
+    /**
+     * @return the symbol of a variable declared in the innermost scope.
+     */
+    @Benchmark
+    public VariableSymbol lookupInnerVariable() {
+        return innermost.lookupVariable(innerVariable);
+    }
+
+    /**
+     * @return a method scope nested in a duplicate of the class scope, as the second pass creates for every method.
+     */
+    @Benchmark
+    public Scope duplicate() {
+        return new Scope(classScope.duplicate());
+    }
+}
@@ -0,0 +1,51 @@
+package main.Benchmark;
+
+import main.Lexer.TokenBuffer;
+import main.Lexer.Tokenizer;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the throughput of the tokenizer over whole sources, both allocating a new buffer per source and reusing a
+ * single tokenizer and buffer. The sizes are those of ClassSize.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TokenizerBenchmark {
+
+    @Param({"SMALL", "MEDIUM", "HUGE"})
+    private ClassSize size;
+
+    private String source;
+    private Tokenizer tokenizer;
+    private TokenBuffer tokens;
+
+    @Setup
+    public void generateSource() {
+        source = size.generateClass();
+        tokenizer = new Tokenizer(source);
+        tokens = Tokenizer.tokenize(source);
+    }
+
+    /**
+     * @return the tokens of the source, in a new buffer.
+     */
+    @Benchmark
+    public TokenBuffer tokenize() {
+        return Tokenizer.tokenize(source);
+    }
+
+    /**
+     * @return the tokens of the source, in the buffer of the previous invocation.
+     */
+    @Benchmark
+    public TokenBuffer tokenizeReusingBuffer() {
+        tokenizer.reset(source);
+        return tokenizer.tokenize(tokens);
+    }
+}
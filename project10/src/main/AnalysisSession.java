@@ -0,0 +1,223 @@
+package main;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import main.Interpreter.*;
+import main.Scope.Scope;
+
+/**
+ * The state shared by the analyses of a run of Main: the pool the files are analyzed on and, optionally, a cache of
+ * the results of the files analyzed before, in memory. The results may also be kept across runs, by a ResultCache.
+ * A single run of Main uses a session of its own, closed at the end of the run. The daemon keeps a single caching
+ * session for all the requests it serves, so the pool threads and the code they run stay warm, and a file whose content
+ * didn't change since it was last analyzed isn't analyzed again.
+ */
+class AnalysisSession implements Closeable {
+
+    private final ForkJoinPool pool;
+    private final ConcurrentMap<Path, CachedResult> cache;
+
+    /**
+     * Constructs new session analyzing files on a pool of the given size.
+     * @param threads the number of files analyzed in parallel.
+     * @param caching true to reuse the results of files whose content didn't change since they were last analyzed.
+     */
+    AnalysisSession(int threads, boolean caching) {
+        this.pool = new ForkJoinPool(threads);
+        this.cache = caching ? new ConcurrentHashMap<>() : null;
+    }
+
+    /**
+     * The result of a single file: its error messages, in source order, its metrics and rule profile, if it was
+     * analyzed, and its class scope, if it was analyzed or found in the result cache.
+     */
+    static class FileResult {
+        final List<String> errors;
+        final AnalysisMetrics metrics;
+        final RuleProfiler profiler;
+        final Scope classScope;
+
+        FileResult(List<String> errors, AnalysisMetrics metrics, RuleProfiler profiler, Scope classScope) {
+            this.errors = errors;
+            this.metrics = metrics;
+            this.profiler = profiler;
+            this.classScope = classScope;
+        }
+
+        FileResult(List<String> errors) {
+            this(errors, null, null, null);
+        }
+    }
+
+    /* The result of a file, together with the key of the content it was computed from. The time a file was modified
+     * and its size may stay the same while its content changes, e.g. on a coarse file system clock, or when the file
+     * is restored by a tool keeping its time, so only the content is trusted. */
+    private static class CachedResult {
+        private final String contentKey;
+        private final FileResult result;
+
+        CachedResult(String contentKey, FileResult result) {
+            this.contentKey = contentKey;
+            this.result = result;
+        }
+    }
+
+    /**
+     * Submit a file to be analyzed on the pool of the session.
+     * A result cached in memory is only used when neither XML files nor a profile are asked for, as those are
+     * written by the analysis itself. The result cache is used unless a profile is asked for; its entries hold the XML
+     * files as well.
+     * @param jackFile the file to analyze.
+     * @param concurrentMethods true to also verify the methods of the file concurrently, on the same pool.
+     * @param xmlDirectory the directory to write the XML files of the file to, or null to write none.
+     * @param profile true to profile the grammar rules of the file.
+     * @param resultCache the cache to keep the result in across runs, or null to keep none.
+     * @return the result of the file, once analyzed.
+     */
+    Future<FileResult> submit(Path jackFile, boolean concurrentMethods, Path xmlDirectory, boolean profile,
+                              ResultCache resultCache) {
+        boolean cacheable = cache != null && xmlDirectory == null && !profile;
+        ExecutorService methodExecutor = concurrentMethods ? pool : null;
+        return pool.submit(() -> cacheable
+                ? interpretCached(jackFile, methodExecutor, resultCache)
+                : interpret(jackFile, methodExecutor, xmlDirectory, profile, resultCache));
+    }
+
+    /* Interpret a single file, unless its content didn't change since its cached result was computed. Like a file
+     * found in the result cache, a file found in memory isn't analyzed, so its result has no metrics. The results are
+     * kept by file, so the memory held doesn't grow with every change of a file. */
+    private FileResult interpretCached(Path jackFile, ExecutorService methodExecutor, ResultCache resultCache) {
+        Path file = jackFile.toAbsolutePath().normalize();
+        byte[] content;
+        try {
+            content = Files.readAllBytes(jackFile);
+        } catch (IOException e) {
+            cache.remove(file);
+            return new FileResult(Collections.singletonList("Failed reading file: " + e.getMessage()));
+        }
+        String key = ResultCache.key(content);
+        CachedResult cached = cache.get(file);
+        if (cached != null && cached.contentKey.equals(key)) {
+            return cached.result;
+        }
+        FileResult result = interpret(jackFile, content, key, methodExecutor, null, resultCache);
+        FileResult skipped = new FileResult(result.errors, null, null, result.classScope);
+        cache.put(file, new CachedResult(key, skipped));
+        return result;
+    }
+
+    /* Interpret a single file, unless its result is found in the given result cache, if any, profiling its grammar
+     * rules if profile is set. The errors are empty if the file is valid. */
+    private static FileResult interpret(Path jackFile, ExecutorService methodExecutor, Path xmlDirectory,
+                                        boolean profile, ResultCache resultCache) {
+        if (resultCache == null || profile) {
+            return interpret(new Interpreter(jackFile.toString()), methodExecutor, xmlDirectory, profile);
+        }
+        byte[] content;
+        try {
+            content = Files.readAllBytes(jackFile);
+        } catch (IOException e) {
+            return new FileResult(Collections.singletonList("Failed reading file: " + e.getMessage()));
+        }
+        return interpret(jackFile, content, ResultCache.key(content), methodExecutor, xmlDirectory, resultCache);
+    }
+
+    /* Interpret a single file, read as the given content of the given key, unless its result is found in the given
+     * result cache, if any. The errors are empty if the file is valid. */
+    private static FileResult interpret(Path jackFile, byte[] content, String key, ExecutorService methodExecutor,
+                                        Path xmlDirectory, ResultCache resultCache) {
+        ResultCache.Entry entry = (resultCache == null) ? null : resultCache.load(key);
+        if (entry != null && (xmlDirectory == null || entry.withXml)) {
+            return restore(entry, jackFile, xmlDirectory);
+        }
+        // The file is read once: the interpreter works on the content hashed.
+        Interpreter interpreter = Interpreter.forSource(jackFile.toString(), ByteBuffer.wrap(content));
+        FileResult result = interpret(interpreter, methodExecutor, xmlDirectory, false);
+        if (resultCache != null && result.metrics != null) {
+            store(resultCache, key, jackFile, interpreter, xmlDirectory != null);
+        }
+        return result;
+    }
+
+    /* Interpret a single file by the given interpreter. The errors are empty if the file is valid; the metrics are
+     * missing if the interpretation failed unexpectedly. The XML files are written after the file is read, so a
+     * failure once any of them was started is a failure writing it. */
+    private static FileResult interpret(Interpreter interpreter, ExecutorService methodExecutor, Path xmlDirectory,
+                                        boolean profile) {
+        RuleProfiler profiler = profile ? new RuleProfiler() : null;
+        try {
+            interpreter.setMethodExecutor(methodExecutor);
+            interpreter.setXmlDirectory(xmlDirectory);
+            if (profiler != null) {
+                interpreter.addListener(profiler);
+            }
+            interpreter.interpret();
+            return new FileResult(Collections.emptyList(), interpreter.getMetrics(), profiler,
+                    interpreter.getClassScope());
+        } catch (IOException e) {
+            String failure = interpreter.getXmlFiles().isEmpty() ? "Failed reading file: " : "Failed writing XML: ";
+            return new FileResult(Collections.singletonList(failure + e.getMessage()));
+        } catch (InterpreterException e) {
+            return new FileResult(format(interpreter.getDiagnostics().getDiagnostics()), interpreter.getMetrics(),
+                    profiler, interpreter.getClassScope());
+        } catch (RuntimeException e) {
+            // Some exceptions carry no message, e.g. a NullPointerException without helpful messages.
+            String message = e.getMessage();
+            return new FileResult(Collections.singletonList((message == null) ? e.getClass().getName() : message));
+        }
+    }
+
+    /* Restore the result of a file from its cache entry, writing its XML files to the given directory, if any. The
+     * entry may have been stored by another file with the same content, so the XML files are named after this one. */
+    private static FileResult restore(ResultCache.Entry entry, Path jackFile, Path xmlDirectory) {
+        if (xmlDirectory != null) {
+            String baseName = Interpreter.getXmlBaseName(jackFile);
+            try {
+                for (Map.Entry<String, byte[]> xmlFile : entry.xmlFiles.entrySet()) {
+                    Files.write(xmlDirectory.resolve(baseName + xmlFile.getKey()), xmlFile.getValue());
+                }
+            } catch (IOException e) {
+                return new FileResult(Collections.singletonList("Failed writing XML: " + e.getMessage()));
+            }
+        }
+        return new FileResult(format(entry.diagnostics), null, null, entry.classScope);
+    }
+
+    /* Store the result of a file in the result cache, together with the XML files written, if they were asked for,
+     * by their names without the base name of the file. The cache only saves work, so a result that can't be stored
+     * is analyzed again by the next run. */
+    private static void store(ResultCache resultCache, String key, Path jackFile, Interpreter interpreter,
+                              boolean withXml) {
+        int baseNameLength = Interpreter.getXmlBaseName(jackFile).length();
+        try {
+            Map<String, byte[]> xmlFiles = new LinkedHashMap<>();
+            for (Path xmlFile : interpreter.getXmlFiles()) {
+                xmlFiles.put(xmlFile.getFileName().toString().substring(baseNameLength), Files.readAllBytes(xmlFile));
+            }
+            resultCache.store(key, new ResultCache.Entry(interpreter.getDiagnostics().getDiagnostics(),
+                    interpreter.getClassScope(), withXml, xmlFiles));
+        } catch (IOException e) {
+            // Not stored; see above.
+        }
+    }
+
+    /* Format the given errors as error messages. */
+    private static List<String> format(List<Diagnostic> diagnostics) {
+        List<String> errors = new ArrayList<>();
+        for (Diagnostic diagnostic : diagnostics) {
+            errors.add(diagnostic.toString());
+        }
+        return errors;
+    }
+
+    /**
+     * Shut the pool of the session down.
+     */
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+}
@@ -0,0 +1,116 @@
+package main;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.*;
+import java.nio.file.attribute.FileTime;
+import java.util.List;
+import main.AnalysisSession.FileResult;
+
+import static main.Corpus.Fixtures.COUNTER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisSessionTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testCachingSessionReusesUnchangedFile() throws Exception {
+        Path jackFile = Files.writeString(directory.resolve("Counter.jack"), COUNTER);
+        try (AnalysisSession session = new AnalysisSession(1, true)) {
+            FileResult first = session.submit(jackFile, false, null, false, null).get();
+            FileResult second = session.submit(jackFile, false, null, false, null).get();
+            FileResult third = session.submit(jackFile, false, null, false, null).get();
+            assertTrue(first.errors.isEmpty());
+            assertNotNull(first.metrics);
+            assertNull(second.metrics);
+            assertEquals(first.errors, second.errors);
+            assertSame(second, third);
+
+            // The same size and time of modification, but another content.
+            FileTime lastModified = Files.getLastModifiedTime(jackFile);
+            Files.writeString(jackFile, COUNTER.replace("let count = 0;", "let total = 0;"));
+            Files.setLastModifiedTime(jackFile, lastModified);
+            FileResult changed = session.submit(jackFile, false, null, false, null).get();
+            assertNotSame(second, changed);
+            assertNotNull(changed.metrics);
+            assertEquals(1, changed.errors.size());
+        }
+    }
+
+    @Test
+    void testSessionWithoutCachingAnalyzesAgain() throws Exception {
+        Path jackFile = Files.writeString(directory.resolve("Counter.jack"), COUNTER);
+        try (AnalysisSession session = new AnalysisSession(1, false)) {
+            FileResult first = session.submit(jackFile, false, null, false, null).get();
+            FileResult second = session.submit(jackFile, false, null, false, null).get();
+            assertNotSame(first, second);
+        }
+    }
+
+    @Test
+    void testProfiledFileIsAnalyzedAgain() throws Exception {
+        Path jackFile = Files.writeString(directory.resolve("Counter.jack"), COUNTER);
+        try (AnalysisSession session = new AnalysisSession(1, true)) {
+            FileResult first = session.submit(jackFile, false, null, true, null).get();
+            FileResult second = session.submit(jackFile, false, null, true, null).get();
+            assertNotNull(first.profiler);
+            assertNotSame(first, second);
+        }
+    }
+
+    @Test
+    void testFailuresNameWhatFailed() throws Exception {
+        Path jackFile = Files.writeString(directory.resolve("Counter.jack"), COUNTER);
+        Path notDirectory = Files.writeString(directory.resolve("xml"), "");
+        try (AnalysisSession session = new AnalysisSession(1, false)) {
+            List<String> readErrors = session.submit(directory.resolve("Missing.jack"), false, null, false, null)
+                    .get().errors;
+            List<String> writeErrors = session.submit(jackFile, false, notDirectory, false, null).get().errors;
+            assertEquals(1, readErrors.size());
+            assertTrue(readErrors.get(0).startsWith("Failed reading file: "));
+            assertEquals(1, writeErrors.size());
+            assertTrue(writeErrors.get(0).startsWith("Failed writing XML: "));
+        }
+    }
+
+    @Test
+    void testResultCacheSkipsUnchangedFileAcrossSessions() throws Exception {
+        Path jackFile = Files.writeString(directory.resolve("Counter.jack"), COUNTER.replace("count = 0", "total = 0"));
+        ResultCache resultCache = new ResultCache(directory.resolve("cache"));
+        FileResult analyzed;
+        try (AnalysisSession session = new AnalysisSession(1, false)) {
+            analyzed = session.submit(jackFile, false, null, false, resultCache).get();
+        }
+        try (AnalysisSession session = new AnalysisSession(1, false)) {
+            FileResult cached = session.submit(jackFile, false, null, false, resultCache).get();
+            assertNotNull(analyzed.metrics);
+            assertNull(cached.metrics);
+            assertEquals(analyzed.errors, cached.errors);
+            assertNotNull(cached.classScope.lookupMethod("reset"));
+
+            Files.writeString(jackFile, COUNTER);
+            FileResult changed = session.submit(jackFile, false, null, false, resultCache).get();
+            assertNotNull(changed.metrics);
+            assertTrue(changed.errors.isEmpty());
+        }
+    }
+
+    @Test
+    void testResultCacheNamesXmlFilesAfterEachFile() throws Exception {
+        Path first = Files.writeString(directory.resolve("First.jack"), COUNTER);
+        Path second = Files.writeString(directory.resolve("Second.jack"), COUNTER);
+        Path xmlDirectory = Files.createDirectory(directory.resolve("xml"));
+        ResultCache resultCache = new ResultCache(directory.resolve("cache"));
+        try (AnalysisSession session = new AnalysisSession(1, false)) {
+            assertNotNull(session.submit(first, false, xmlDirectory, false, resultCache).get().metrics);
+            assertNull(session.submit(second, false, xmlDirectory, false, resultCache).get().metrics);
+        }
+        assertEquals(Files.readString(xmlDirectory.resolve("First.xml")),
+                Files.readString(xmlDirectory.resolve("Second.xml")));
+        assertEquals(Files.readString(xmlDirectory.resolve("FirstT.xml")),
+                Files.readString(xmlDirectory.resolve("SecondT.xml")));
+    }
+}
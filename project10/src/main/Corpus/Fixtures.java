@@ -0,0 +1,32 @@
+package main.Corpus;
+
+/**
+ * Small Jack sources shared by the tests, so every test of the analysis works on the same input. Tests needing an
+ * invalid source derive it by replacing a part of a valid one.
+ * This class is part of the test sources.
+ */
+public final class Fixtures {
+
+    /**
+     * A valid class of 14 lines: a field, a method with a parameter calling another method from a nested if, and
+     * that other method. Line 4 adds the parameter to the field, line 6 is the call and line 11 resets the field.
+     */
+    public static final String COUNTER = String.join("\n",
+            "class Counter {",
+            "    field int count;",
+            "    method void add(int amount) {",
+            "        let count = count + amount;",
+            "        if (count > 10) {",
+            "            do reset();",
+            "        }",
+            "        return;",
+            "    }",
+            "    method void reset() {",
+            "        let count = 0;",
+            "        return;",
+            "    }",
+            "}");
+
+    private Fixtures() {
+    }
+}
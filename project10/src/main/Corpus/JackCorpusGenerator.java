@@ -0,0 +1,344 @@
+package main.Corpus;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.Random;
+
+/**
+ * Generates valid Jack classes for scale and stress testing, with controllable number of subroutines, statements per
+ * subroutine, block nesting depth, expression depth, number of identifiers and length of string constants.
+ * The classes are streamed to a writer as they are generated, and nested blocks and expressions are generated without
+ * recursion, so a corpus is bounded only by the disk: writeCorpus writes as many classes as needed to reach a size.
+ * Generation is deterministic for a given seed.
+ * This class is part of the test sources; run its main method to write a corpus for throughput tests.
+ */
+public class JackCorpusGenerator {
+
+    private static final String USAGE = "Usage: JackCorpusGenerator <directory> <bytes> [subroutines statements "
+            + "nestingDepth expressionDepth identifiers stringLength]";
+    private static final String CLASS_PREFIX = "Corpus";
+    private static final String JACK_FILE_SUFFIX = ".jack";
+    private static final String INDENT = "    ";
+    private static final String[] OPERATORS = {"+", "-", "*", "/", "&", "|", "<", ">", "="};
+    private static final int MAX_CONSTANT = 32767;
+    private static final int STRING_CHUNK = 4096;
+
+    private int subroutines;
+    private int statements;
+    private int nestingDepth;
+    private int expressionDepth;
+    private int identifiers;
+    private int stringLength;
+    private Random random;
+
+    private Writer out;
+    private long written;
+
+    /**
+     * Constructs new generator of small classes: 4 subroutines of 8 statements, blocks nested 2 deep, expressions 3
+     * deep, 8 identifiers and strings of 16 characters.
+     */
+    public JackCorpusGenerator() {
+        this.subroutines = 4;
+        this.statements = 8;
+        this.nestingDepth = 2;
+        this.expressionDepth = 3;
+        this.identifiers = 8;
+        this.stringLength = 16;
+        this.random = new Random(0);
+    }
+
+    /**
+     * Set the number of subroutines of every class.
+     * @param subroutines number of subroutines, at least 1.
+     * @return this generator.
+     */
+    public JackCorpusGenerator setSubroutines(int subroutines) {
+        this.subroutines = requireAtLeast(subroutines, 1);
+        return this;
+    }
+
+    /**
+     * Set the number of statements of every subroutine body, besides its return statement.
+     * @param statements number of statements.
+     * @return this generator.
+     */
+    public JackCorpusGenerator setStatements(int statements) {
+        this.statements = requireAtLeast(statements, 0);
+        return this;
+    }
+
+    /**
+     * Set how deep if and while blocks are nested in each other.
+     * @param nestingDepth depth of the blocks, 0 for no if and while statements.
+     * @return this generator.
+     */
+    public JackCorpusGenerator setNestingDepth(int nestingDepth) {
+        this.nestingDepth = requireAtLeast(nestingDepth, 0);
+        return this;
+    }
+
+    /**
+     * Set how deep expressions are nested in parentheses.
+     * @param expressionDepth depth of the expressions, 0 for single terms.
+     * @return this generator.
+     */
+    public JackCorpusGenerator setExpressionDepth(int expressionDepth) {
+        this.expressionDepth = requireAtLeast(expressionDepth, 0);
+        return this;
+    }
+
+    /**
+     * Set the number of variables declared by every class, as fields.
+     * @param identifiers number of variables, at least 1.
+     * @return this generator.
+     */
+    public JackCorpusGenerator setIdentifiers(int identifiers) {
+        this.identifiers = requireAtLeast(identifiers, 1);
+        return this;
+    }
+
+    /**
+     * Set the length of the string constants, one of which is printed by every subroutine.
+     * @param stringLength number of characters of a string constant.
+     * @return this generator.
+     */
+    public JackCorpusGenerator setStringLength(int stringLength) {
+        this.stringLength = requireAtLeast(stringLength, 0);
+        return this;
+    }
+
+    /**
+     * Restart the generation from the given seed.
+     * @param seed the seed of the generated choices.
+     * @return this generator.
+     */
+    public JackCorpusGenerator setSeed(long seed) {
+        this.random = new Random(seed);
+        return this;
+    }
+
+    /* Check that a parameter is at least the given minimum. */
+    private static int requireAtLeast(int value, int minimum) {
+        if (value < minimum) {
+            throw new IllegalArgumentException("Expected at least " + minimum + ", got " + value + ".");
+        }
+        return value;
+    }
+
+    /**
+     * Write a single class to the given writer.
+     * @param writer the writer to write the class to.
+     * @param className the name of the class.
+     * @return the number of characters written, which is also the number of bytes, as the class is ASCII only.
+     * @throws IOException if the writer fails.
+     */
+    public long writeClass(Writer writer, String className) throws IOException {
+        out = writer;
+        written = 0;
+        emit("/** Generated by JackCorpusGenerator. */\n");
+        emit("class ").emit(className).emit(" {\n");
+        emit(INDENT).emit("field int ");
+        for (int i = 0; i < identifiers; i++) {
+            emit((i == 0) ? "" : ", ").emit(variable(i));
+        }
+        emit(";\n\n");
+        for (int i = 0; i < subroutines; i++) {
+            writeSubroutine(i);
+        }
+        emit("}\n");
+        return written;
+    }
+
+    /**
+     * Write classes to files in the given directory, until they add up to at least the given size.
+     * @param directory the directory to write to, created if missing.
+     * @param bytes the size of the corpus.
+     * @return the number of files written.
+     * @throws IOException if writing fails.
+     */
+    public int writeCorpus(Path directory, long bytes) throws IOException {
+        Files.createDirectories(directory);
+        long total = 0;
+        int files = 0;
+        while (total < bytes) {
+            String className = CLASS_PREFIX + files;
+            Path jackFile = directory.resolve(className + JACK_FILE_SUFFIX);
+            try (Writer writer = Files.newBufferedWriter(jackFile, StandardCharsets.US_ASCII)) {
+                total += writeClass(writer, className);
+            }
+            files++;
+        }
+        return files;
+    }
+
+    /* Write a subroutine: run<ordinal>(int a, int b), with a local, the statements, a printed string and a return. */
+    private void writeSubroutine(int ordinal) throws IOException {
+        emit(INDENT).emit("method int ").emit(subroutine(ordinal)).emit("(int a, int b) {\n");
+        emit(INDENT).emit(INDENT).emit("var int t;\n");
+        for (int i = 0; i < statements; i++) {
+            writeStatement(2);
+        }
+        emit(INDENT).emit(INDENT).emit("do Output.printString(\"");
+        writeString();
+        emit("\");\n");
+        emit(INDENT).emit(INDENT).emit("return ");
+        writeExpression();
+        emit(";\n");
+        emit(INDENT).emit("}\n\n");
+    }
+
+    /* Write a single statement at the given indentation: a let, a do, or if and while blocks nested nestingDepth
+     * deep around a let. */
+    private void writeStatement(int indentation) throws IOException {
+        int kind = random.nextInt((nestingDepth > 0) ? 4 : 2);
+        if (kind == 0) {
+            writeLet(indentation);
+        } else if (kind == 1) {
+            indent(indentation);
+            emit("do ").emit(subroutine(random.nextInt(subroutines))).emit("(");
+            writeExpression();
+            emit(", ");
+            writeExpression();
+            emit(");\n");
+        } else {
+            writeNestedBlocks(indentation);
+        }
+    }
+
+    /* Write if and while blocks nested nestingDepth deep, innermost holding a let. */
+    private void writeNestedBlocks(int indentation) throws IOException {
+        boolean[] elses = new boolean[nestingDepth];
+        for (int level = 0; level < nestingDepth; level++) {
+            indent(indentation + level);
+            boolean conditional = random.nextBoolean();
+            emit(conditional ? "if (" : "while (");
+            writeExpression();
+            emit(") {\n");
+            elses[level] = conditional && random.nextBoolean();
+        }
+        writeLet(indentation + nestingDepth);
+        for (int level = nestingDepth - 1; level >= 0; level--) {
+            indent(indentation + level);
+            emit("}");
+            if (elses[level]) {
+                emit(" else {\n");
+                writeLet(indentation + level + 1);
+                indent(indentation + level);
+                emit("}");
+            }
+            emit("\n");
+        }
+    }
+
+    /* Write a let statement, assigning to a variable or to an array entry. */
+    private void writeLet(int indentation) throws IOException {
+        indent(indentation);
+        emit("let ").emit(randomVariable());
+        if (random.nextInt(4) == 0) {
+            emit("[");
+            writeTerm();
+            emit("]");
+        }
+        emit(" = ");
+        writeExpression();
+        emit(";\n");
+    }
+
+    /* Write an expression nested expressionDepth deep: the parentheses are opened first, then every level is closed
+     * with an operator and a term. */
+    private void writeExpression() throws IOException {
+        for (int level = 0; level < expressionDepth; level++) {
+            emit(random.nextBoolean() ? "(" : "-(");
+        }
+        writeTerm();
+        for (int level = 0; level < expressionDepth; level++) {
+            emit(" ").emit(OPERATORS[random.nextInt(OPERATORS.length)]).emit(" ");
+            writeTerm();
+            emit(")");
+        }
+    }
+
+    /* Write a simple term: a variable, a parameter, an integer constant or a keyword constant. */
+    private void writeTerm() throws IOException {
+        switch (random.nextInt(5)) {
+            case 0:
+                emit(Integer.toString(random.nextInt(MAX_CONSTANT + 1)));
+                break;
+            case 1:
+                emit(random.nextBoolean() ? "a" : "b");
+                break;
+            case 2:
+                emit(random.nextBoolean() ? "true" : "null");
+                break;
+            default:
+                emit(randomVariable());
+        }
+    }
+
+    /* Write the characters of a string constant, a chunk at a time, so long strings aren't held in memory whole. */
+    private void writeString() throws IOException {
+        char[] chunk = new char[Math.min(stringLength, STRING_CHUNK)];
+        for (int i = 0; i < chunk.length; i++) {
+            chunk[i] = (char) ('a' + (i % 26));
+        }
+        for (int left = stringLength; left > 0; left -= chunk.length) {
+            int length = Math.min(left, chunk.length);
+            out.write(chunk, 0, length);
+            written += length;
+        }
+    }
+
+    /* Indent a line to the given level. */
+    private void indent(int indentation) throws IOException {
+        for (int i = 0; i < indentation; i++) {
+            emit(INDENT);
+        }
+    }
+
+    /* Write text, counting its characters. */
+    private JackCorpusGenerator emit(String text) throws IOException {
+        out.write(text);
+        written += text.length();
+        return this;
+    }
+
+    /* Get the name of a random variable of the class. */
+    private String randomVariable() {
+        return variable(random.nextInt(identifiers));
+    }
+
+    /* Get the name of the variable of the given ordinal. */
+    private static String variable(int ordinal) {
+        return "v" + ordinal;
+    }
+
+    /* Get the name of the subroutine of the given ordinal. */
+    private static String subroutine(int ordinal) {
+        return "run" + ordinal;
+    }
+
+    /**
+     * Write a corpus of at least the given size to a directory.
+     * @param args the directory and the size in bytes, optionally followed by the number of subroutines, statements
+     *             per subroutine, nesting depth, expression depth, identifiers and string length.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2 && args.length != 8) {
+            System.err.println(USAGE);
+            System.exit(2);
+        }
+        JackCorpusGenerator generator = new JackCorpusGenerator();
+        if (args.length == 8) {
+            generator.setSubroutines(Integer.parseInt(args[2]))
+                    .setStatements(Integer.parseInt(args[3]))
+                    .setNestingDepth(Integer.parseInt(args[4]))
+                    .setExpressionDepth(Integer.parseInt(args[5]))
+                    .setIdentifiers(Integer.parseInt(args[6]))
+                    .setStringLength(Integer.parseInt(args[7]));
+        }
+        int files = generator.writeCorpus(Paths.get(args[0]), Long.parseLong(args[1]));
+        System.out.println("Wrote " + files + " files to " + args[0] + ".");
+    }
+}
@@ -0,0 +1,72 @@
+package main.Corpus;
+
+import main.Interpreter.Interpreter;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JackCorpusGeneratorTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testDefaultClassIsValid() throws IOException {
+        assertValid(new JackCorpusGenerator());
+    }
+
+    @Test
+    void testDeepClassIsValid() throws IOException {
+        assertValid(new JackCorpusGenerator().setNestingDepth(200).setExpressionDepth(500).setSeed(1));
+    }
+
+    @Test
+    void testWideClassIsValid() throws IOException {
+        assertValid(new JackCorpusGenerator().setSubroutines(300).setStatements(40).setIdentifiers(1000)
+                .setStringLength(100000).setSeed(2));
+    }
+
+    @Test
+    void testFlatClassIsValid() throws IOException {
+        assertValid(new JackCorpusGenerator().setStatements(0).setNestingDepth(0).setExpressionDepth(0)
+                .setIdentifiers(1).setStringLength(0));
+    }
+
+    @Test
+    void testGenerationIsDeterministic() throws IOException {
+        StringWriter first = new StringWriter();
+        StringWriter second = new StringWriter();
+        new JackCorpusGenerator().setSeed(7).writeClass(first, "Same");
+        long written = new JackCorpusGenerator().setSeed(7).writeClass(second, "Same");
+        assertEquals(first.toString(), second.toString());
+        assertEquals(first.toString().length(), written);
+    }
+
+    @Test
+    void testCorpusReachesSize() throws IOException {
+        long bytes = 200000;
+        int files = new JackCorpusGenerator().writeCorpus(directory, bytes);
+        long total = 0;
+        try (Stream<Path> jackFiles = Files.list(directory)) {
+            for (Path jackFile : (Iterable<Path>) jackFiles::iterator) {
+                total += Files.size(jackFile);
+            }
+        }
+        assertTrue(files > 1);
+        assertTrue(total >= bytes);
+        assertEquals(files, directory.toFile().list().length);
+    }
+
+    private void assertValid(JackCorpusGenerator generator) throws IOException {
+        Path jackFile = directory.resolve("Generated.jack");
+        try (Writer writer = Files.newBufferedWriter(jackFile)) {
+            generator.writeClass(writer, "Generated");
+        }
+        new Interpreter(jackFile.toString()).interpret();
+    }
+}
@@ -0,0 +1,195 @@
+package main;
+
+import java.io.*;
+import java.net.StandardProtocolFamily;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Long running analysis server, so the analyses don't pay for the JVM startup and a cold JIT every time.
+ * The daemon listens on a Unix domain socket and runs every request as a run of Main, on a session shared by all the
+ * requests: the pool threads and the code stay warm, and the results of files that didn't change are reused.
+ * The protocol is simple enough for any client able to write to the socket, e.g. DaemonClient or printf and socat.
+ * A request is a sequence of fields, each terminated by a NUL char: the working directory, the number of arguments of
+ * Main, in decimal, and the arguments, as is, so arguments holding line breaks or empty arguments are passed intact.
+ * The response is the lines printed by Main, each prefixed by "out " or "err " by the stream it was printed to,
+ * followed by the line "exit code", where code is the exit code of Main.
+ */
+public class Daemon {
+
+    static final char FIELD_END = '\0';
+    static final String OUT_PREFIX = "out ";
+    static final String ERR_PREFIX = "err ";
+    static final String EXIT_PREFIX = "exit ";
+    private static final String THREADS_FLAG = "-j";
+    private static final String USAGE = "Usage: Daemon [-j threads] <socketPath>";
+
+    private final Path socketPath;
+    private final AnalysisSession session;
+    private final ExecutorService requests;
+
+    /**
+     * Constructs new daemon listening on the given socket, analyzing files on a pool of the given size.
+     * @param socketPath the path of the socket.
+     * @param threads the number of files analyzed in parallel, over all the requests.
+     */
+    Daemon(Path socketPath, int threads) {
+        this.socketPath = socketPath;
+        this.session = new AnalysisSession(threads, true);
+        this.requests = Executors.newCachedThreadPool(request -> {
+            Thread thread = new Thread(request, "daemon-request");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Start the daemon, and serve requests until the process is stopped.
+     * @param args the path of the socket, optionally preceded by "-j threads" to set the number of files analyzed in
+     *             parallel (defaults to the number of cores).
+     */
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String socketPath = null;
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(THREADS_FLAG)) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (socketPath == null) {
+                    socketPath = args[i];
+                } else {
+                    socketPath = null;
+                    break;
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException e) {
+            socketPath = null;
+        }
+        if (socketPath == null || threads < 1) {
+            System.err.println(USAGE);
+            System.exit(Main.USAGE_EXIT_CODE);
+        }
+        try {
+            new Daemon(Paths.get(socketPath), threads).serve();
+        } catch (IOException e) {
+            System.err.println(e.getMessage());
+            System.exit(Main.ERROR_EXIT_CODE);
+        }
+    }
+
+    /**
+     * Listen on the socket and serve the requests, each on a thread of its own, until the process is stopped.
+     * A socket file left by a previous daemon is replaced, and the socket file is deleted when the process exits.
+     * @throws IOException if the socket can't be bound or accepting fails.
+     */
+    void serve() throws IOException {
+        Files.deleteIfExists(socketPath);
+        try (ServerSocketChannel server = ServerSocketChannel.open(StandardProtocolFamily.UNIX)) {
+            server.bind(UnixDomainSocketAddress.of(socketPath));
+            Runtime.getRuntime().addShutdownHook(new Thread(this::deleteSocket));
+            while (true) {
+                SocketChannel client = server.accept();
+                requests.execute(() -> serve(client));
+            }
+        } finally {
+            session.close();
+            deleteSocket();
+        }
+    }
+
+    /* Serve a single request. A client that disconnects early only loses its own response. */
+    private void serve(SocketChannel client) {
+        try (SocketChannel channel = client;
+             BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+             Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8)) {
+            Path workingDirectory;
+            List<String> args = new ArrayList<>();
+            try {
+                workingDirectory = Paths.get(readField(reader));
+                // The count is only trusted as far as the arguments actually sent.
+                for (int count = Integer.parseUnsignedInt(readField(reader)); args.size() != count; ) {
+                    args.add(readField(reader));
+                }
+            } catch (EOFException | NumberFormatException | InvalidPathException e) {
+                writer.write(ERR_PREFIX + "Invalid request: expected the working directory, the number of "
+                        + "arguments and the arguments, each terminated by a NUL char.\n");
+                writer.write(EXIT_PREFIX + Main.USAGE_EXIT_CODE + "\n");
+                return;
+            }
+            int exitCode;
+            try (PrintStream out = new PrintStream(new PrefixedLines(writer, OUT_PREFIX), true, "UTF-8");
+                 PrintStream err = new PrintStream(new PrefixedLines(writer, ERR_PREFIX), true, "UTF-8")) {
+                exitCode = Main.run(args.toArray(new String[0]), workingDirectory, out, err, session);
+            }
+            writer.write(EXIT_PREFIX + exitCode + "\n");
+        } catch (IOException e) {
+            // The client is gone, or sent a request that can't be answered; there is no one to report to.
+        }
+    }
+
+    /* Read a single field of a request, up to the NUL char terminating it. */
+    private static String readField(Reader reader) throws IOException {
+        StringBuilder field = new StringBuilder();
+        for (int c = reader.read(); c != FIELD_END; c = reader.read()) {
+            if (c == -1) {
+                throw new EOFException("The request ended within a field.");
+            }
+            field.append((char) c);
+        }
+        return field.toString();
+    }
+
+    /* Delete the socket file, if it's still there. */
+    private void deleteSocket() {
+        try {
+            Files.deleteIfExists(socketPath);
+        } catch (IOException e) {
+            // Nothing to do; the next daemon replaces it.
+        }
+    }
+
+    /* Output stream writing every line written to it as a line of the response, prefixed by the given prefix. The
+     * out and err streams of a request share the response, so whole lines are written at a time. */
+    private static class PrefixedLines extends OutputStream {
+        private final Writer response;
+        private final String prefix;
+        private final ByteArrayOutputStream line;
+
+        PrefixedLines(Writer response, String prefix) {
+            this.response = response;
+            this.prefix = prefix;
+            this.line = new ByteArrayOutputStream();
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            if (b == '\n') {
+                writeLine();
+            } else if (b != '\r') {
+                line.write(b);
+            }
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (line.size() > 0) {
+                writeLine();
+            }
+        }
+
+        /* Write the line collected so far to the response. */
+        private void writeLine() throws IOException {
+            synchronized (response) {
+                response.write(prefix);
+                response.write(line.toString(StandardCharsets.UTF_8));
+                response.write('\n');
+                response.flush();
+            }
+            line.reset();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package main;
+
+import java.io.*;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Thin client of the Daemon: sends the arguments of Main to the daemon listening on the given socket, and prints the
+ * response as Main would have, exiting with the same exit code. Relative paths are resolved against the working
+ * directory of the client.
+ * If no daemon listens on the socket, the files are analyzed in this process instead, so a script using the client
+ * works whether the daemon is up or not. A connection lost after the request was sent fails the client instead, as
+ * part of the response may already be printed.
+ */
+public class DaemonClient {
+
+    private static final String USAGE = "Usage: DaemonClient <socketPath> [Main arguments...]";
+
+    /**
+     * Submit a request to the daemon.
+     * @param args the path of the socket, followed by the arguments of Main.
+     */
+    public static void main(String[] args) {
+        if (args.length < 1) {
+            System.err.println(USAGE);
+            System.exit(Main.USAGE_EXIT_CODE);
+        }
+        String[] mainArgs = new String[args.length - 1];
+        System.arraycopy(args, 1, mainArgs, 0, mainArgs.length);
+        SocketChannel channel;
+        try {
+            channel = SocketChannel.open(UnixDomainSocketAddress.of(args[0]));
+        } catch (IOException e) {
+            // No daemon listens on the socket; nothing was sent, so the files are analyzed here instead.
+            exit(Main.run(mainArgs, Paths.get(""), System.out, System.err, null));
+            return;
+        }
+        int exitCode;
+        try (SocketChannel connected = channel) {
+            exitCode = request(connected, mainArgs, Paths.get("").toAbsolutePath(), System.out, System.err);
+        } catch (IOException e) {
+            // Part of the response may already be printed, so the files can't be analyzed here instead.
+            System.err.println("Lost the daemon: " + e.getMessage());
+            exitCode = Main.ERROR_EXIT_CODE;
+        }
+        exit(exitCode);
+    }
+
+    /* Exit with the given exit code, unless it's a success. */
+    private static void exit(int exitCode) {
+        if (exitCode != Main.SUCCESS_EXIT_CODE) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Send a request to the daemon, and print its response.
+     * @param channel the channel connected to the daemon.
+     * @param mainArgs the arguments of Main.
+     * @param workingDirectory the directory the daemon resolves relative paths against.
+     * @param out the stream the out lines of the response are printed to.
+     * @param err the stream the err lines of the response are printed to.
+     * @return the exit code of the request.
+     * @throws IOException if the connection fails, or the response ends without a valid exit line.
+     */
+    static int request(SocketChannel channel, String[] mainArgs, Path workingDirectory, PrintStream out,
+                       PrintStream err) throws IOException {
+        Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+        writer.write(workingDirectory.toString() + Daemon.FIELD_END);
+        writer.write(mainArgs.length + String.valueOf(Daemon.FIELD_END));
+        for (String arg : mainArgs) {
+            writer.write(arg + Daemon.FIELD_END);
+        }
+        writer.flush();
+        BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+            if (line.startsWith(Daemon.OUT_PREFIX)) {
+                out.println(line.substring(Daemon.OUT_PREFIX.length()));
+            } else if (line.startsWith(Daemon.ERR_PREFIX)) {
+                err.println(line.substring(Daemon.ERR_PREFIX.length()));
+            } else if (line.startsWith(Daemon.EXIT_PREFIX)) {
+                try {
+                    return Integer.parseInt(line.substring(Daemon.EXIT_PREFIX.length()));
+                } catch (NumberFormatException e) {
+                    throw new IOException("Invalid exit line: " + line);
+                }
+            }
+        }
+        throw new EOFException("The daemon closed the connection before answering.");
+    }
+}
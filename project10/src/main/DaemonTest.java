@@ -0,0 +1,124 @@
+package main;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.net.UnixDomainSocketAddress;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+import static main.Corpus.Fixtures.COUNTER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DaemonTest {
+
+    @TempDir
+    Path directory;
+
+    private Path socketPath;
+
+    @BeforeEach
+    void startDaemon() throws Exception {
+        socketPath = directory.resolve("daemon.sock");
+        Daemon daemon = new Daemon(socketPath, 1);
+        Thread thread = new Thread(() -> {
+            try {
+                daemon.serve();
+            } catch (IOException e) {
+                // The test fails on connecting.
+            }
+        });
+        thread.setDaemon(true);
+        thread.start();
+        // The socket file is created on binding, right before the daemon listens, so wait for a connection instead.
+        for (int attempt = 0; ; attempt++) {
+            try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+                return;
+            } catch (IOException e) {
+                if (attempt == 100) {
+                    throw e;
+                }
+                Thread.sleep(20);
+            }
+        }
+    }
+
+    @Test
+    void testClientRoundTrip() throws IOException {
+        Files.writeString(directory.resolve("Valid.jack"), COUNTER);
+        Files.writeString(directory.resolve("Invalid.jack"), COUNTER.replace("count = 0", "total = 0"));
+        String[] args = {"-t", "Valid.jack", "Invalid.jack"};
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        assertEquals(Main.ERROR_EXIT_CODE, request(args, out, err));
+        List<String> metrics = lines(out);
+        assertEquals(2, metrics.size());
+        // Paths are reported as given, relative to the working directory of the client, as by a local run.
+        assertTrue(metrics.get(1).startsWith("{\"file\":\"Valid.jack\","));
+        assertEquals(Collections.singletonList(
+                "Invalid.jack: Line 11: Variable total is not declared. [UNDECLARED_VARIABLE]"), lines(err));
+
+        // Unchanged files are served from memory, without metrics.
+        ByteArrayOutputStream cachedOut = new ByteArrayOutputStream();
+        ByteArrayOutputStream cachedErr = new ByteArrayOutputStream();
+        assertEquals(Main.ERROR_EXIT_CODE, request(args, cachedOut, cachedErr));
+        assertTrue(lines(cachedOut).isEmpty());
+        assertEquals(lines(err), lines(cachedErr));
+    }
+
+    @Test
+    void testProtocol() throws IOException {
+        Files.writeString(directory.resolve("Valid.jack"), COUNTER);
+        assertEquals(Arrays.asList("out {", "exit 0"), rawRequest(directory + "\0" + "2\0-t\0Valid.jack\0", 1));
+        assertEquals(Arrays.asList("err U", "exit " + Main.USAGE_EXIT_CODE), rawRequest(directory + "\0" + "0\0", 1));
+        assertEquals(Arrays.asList("err I", "exit " + Main.USAGE_EXIT_CODE), rawRequest("Valid.jack\0-t\0", 1));
+        assertEquals(Arrays.asList("err I", "exit " + Main.USAGE_EXIT_CODE),
+                rawRequest(directory + "\0" + "2\0Valid.jack\0", 1));
+    }
+
+    @Test
+    void testArgumentsPassedIntact() throws IOException {
+        Files.writeString(directory.resolve("Valid.jack"), COUNTER);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        // An empty argument doesn't end the request: the XML files are written to the working directory.
+        assertEquals(Main.SUCCESS_EXIT_CODE, request(new String[] {"-x", "", "Valid.jack"}, out, err));
+        assertTrue(Files.exists(directory.resolve("ValidT.xml")));
+        // A line break is part of the argument, so the missing file is reported by its name, on two lines.
+        assertEquals(Main.ERROR_EXIT_CODE, request(new String[] {"Missing\nName.jack"}, out, err));
+        assertEquals(Arrays.asList("Missing", "Name.jack"), lines(err));
+    }
+
+    /* Send a request through the client, returning its exit code. */
+    private int request(String[] args, OutputStream out, OutputStream err) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            return DaemonClient.request(channel, args, directory, new PrintStream(out, true, "UTF-8"),
+                    new PrintStream(err, true, "UTF-8"));
+        }
+    }
+
+    /* Send a raw request, returning the response lines, the first cutLines of them cut to their first 5 chars. */
+    private List<String> rawRequest(String request, int cutLines) throws IOException {
+        try (SocketChannel channel = SocketChannel.open(UnixDomainSocketAddress.of(socketPath))) {
+            Writer writer = Channels.newWriter(channel, StandardCharsets.UTF_8);
+            writer.write(request);
+            writer.flush();
+            channel.shutdownOutput();
+            BufferedReader reader = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8));
+            List<String> response = new ArrayList<>();
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                response.add(response.size() < cutLines ? line.substring(0, 5) : line);
+            }
+            return response;
+        }
+    }
+
+    private static List<String> lines(ByteArrayOutputStream stream) {
+        String text = stream.toString(StandardCharsets.UTF_8);
+        return text.isEmpty() ? Collections.emptyList() : Arrays.asList(text.split("\n"));
+    }
+}
@@ -0,0 +1,82 @@
+package main.Interpreter;
+
+import jdk.jfr.*;
+
+/**
+ * The JDK Flight Recorder events of the analysis of a Jack file, one per phase and one per subroutine verified.
+ * The events cost next to nothing unless a recording is running, e.g. one started with
+ * -XX:StartFlightRecording:filename=analysis.jfr, so they are always committed.
+ */
+final class AnalysisEvents {
+
+    private AnalysisEvents() {
+    }
+
+    /**
+     * Reading the source file.
+     */
+    @Name("jack.ReadSource")
+    @Label("Read Source")
+    @Category({"Jack", "Analysis"})
+    static class ReadSource extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Characters")
+        int characters;
+    }
+
+    /**
+     * Tokenizing the whole source.
+     */
+    @Name("jack.Tokenize")
+    @Label("Tokenize")
+    @Category({"Jack", "Analysis"})
+    static class Tokenize extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Tokens")
+        int tokens;
+
+        @Label("Lines")
+        int lines;
+    }
+
+    /**
+     * A pass of the parser over the file: the class declarations, or the subroutine bodies.
+     */
+    @Name("jack.Pass")
+    @Label("Pass")
+    @Category({"Jack", "Analysis"})
+    static class Pass extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Pass")
+        String pass;
+
+        @Label("Symbol Lookups")
+        long lookups;
+    }
+
+    /**
+     * Verifying the body of a single subroutine.
+     */
+    @Name("jack.Subroutine")
+    @Label("Subroutine")
+    @Category({"Jack", "Analysis"})
+    static class Subroutine extends Event {
+        @Label("File")
+        String file;
+
+        @Label("Ordinal")
+        int ordinal;
+
+        @Label("Symbol Lookups")
+        long lookups;
+
+        @Label("Scope Depth")
+        int scopeDepth;
+    }
+}
@@ -0,0 +1,214 @@
+package main.Interpreter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The measurements of the analysis of a single Jack file: the size of the source, the time spent in every phase and
+ * on every subroutine, the number of symbols looked up and the deepest scope reached.
+ * Subroutines verified concurrently record their measurements at the same time, so those are synchronized.
+ * A phase that wasn't reached, e.g. because an earlier phase failed, takes no time.
+ */
+public class AnalysisMetrics {
+
+    private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
+    private final String file;
+    private int characters;
+    private int lines;
+    private int tokens;
+    private long readNanos;
+    private long tokenizeNanos;
+    private long firstPassNanos;
+    private long secondPassNanos;
+    private long[] subroutineNanos;
+    private long lookups;
+    private int maxScopeDepth;
+
+    /**
+     * Constructs new empty metrics of the given file.
+     * @param file the file analyzed.
+     */
+    AnalysisMetrics(String file) {
+        this.file = file;
+        this.subroutineNanos = new long[0];
+    }
+
+    /* Record reading the source. */
+    void recordRead(int characters, long nanos) {
+        this.characters = characters;
+        this.readNanos = nanos;
+    }
+
+    /* Record tokenizing the source, which counts its lines as well. */
+    void recordTokenize(int tokens, int lines, long nanos) {
+        this.tokens = tokens;
+        this.lines = lines;
+        this.tokenizeNanos = nanos;
+    }
+
+    /* Record the first pass, over the class declarations, and prepare for the given number of subroutines. */
+    void recordFirstPass(long nanos, long lookups, int scopeDepth, int subroutines) {
+        this.firstPassNanos = nanos;
+        this.subroutineNanos = new long[subroutines];
+        recordLookups(lookups, scopeDepth);
+    }
+
+    /* Record the second pass, over the subroutine bodies. */
+    void recordSecondPass(long nanos) {
+        this.secondPassNanos = nanos;
+    }
+
+    /* Record the verification of a single subroutine body. */
+    synchronized void recordSubroutine(int ordinal, long nanos, long lookups, int scopeDepth) {
+        subroutineNanos[ordinal] = nanos;
+        recordLookups(lookups, scopeDepth);
+    }
+
+    /* Record symbol lookups made in scopes of the given depth at most. */
+    synchronized void recordLookups(long lookups, int scopeDepth) {
+        this.lookups += lookups;
+        this.maxScopeDepth = Math.max(maxScopeDepth, scopeDepth);
+    }
+
+    /**
+     * @return the number of lines of the source.
+     */
+    public int getLines() {
+        return lines;
+    }
+
+    /**
+     * @return the number of tokens of the source.
+     */
+    public int getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @return the time spent reading the source, in nanoseconds.
+     */
+    public long getReadNanos() {
+        return readNanos;
+    }
+
+    /**
+     * @return the time spent tokenizing the source, in nanoseconds.
+     */
+    public long getTokenizeNanos() {
+        return tokenizeNanos;
+    }
+
+    /**
+     * @return the time spent on the class declarations, in nanoseconds.
+     */
+    public long getFirstPassNanos() {
+        return firstPassNanos;
+    }
+
+    /**
+     * @return the time spent on the subroutine bodies, in nanoseconds.
+     */
+    public long getSecondPassNanos() {
+        return secondPassNanos;
+    }
+
+    /**
+     * @return the time spent on every subroutine body, in nanoseconds, by the order of the subroutines. Empty if the
+     * bodies were parsed along with the whole class, for the listeners, rather than one by one.
+     */
+    public synchronized long[] getSubroutineNanos() {
+        return subroutineNanos.clone();
+    }
+
+    /**
+     * @return the number of variables and methods looked up in the scopes.
+     */
+    public synchronized long getLookups() {
+        return lookups;
+    }
+
+    /**
+     * @return the depth of the deepest scope analyzed.
+     */
+    public synchronized int getMaxScopeDepth() {
+        return maxScopeDepth;
+    }
+
+    /**
+     * @return the tokenizer throughput, in tokens per second.
+     */
+    public double getTokensPerSecond() {
+        return perSecond(tokens, tokenizeNanos);
+    }
+
+    /**
+     * @return the throughput of the whole analysis, in lines per second.
+     */
+    public double getLinesPerSecond() {
+        return perSecond(lines, readNanos + tokenizeNanos + firstPassNanos + secondPassNanos);
+    }
+
+    /* Get the rate of the given count over the given time. */
+    private static double perSecond(long count, long nanos) {
+        return (nanos == 0) ? 0 : count * NANOS_PER_SECOND / nanos;
+    }
+
+    /**
+     * @return the metrics as a single line JSON object; times are in milliseconds.
+     */
+    public String toJson() {
+        return toJson(file);
+    }
+
+    /**
+     * @param file the name to report the file by, e.g. the path the user gave, rather than the path it was read from.
+     * @return the metrics as a single line JSON object, naming the file by the given name; times are in milliseconds.
+     */
+    public synchronized String toJson(String file) {
+        StringBuilder json = new StringBuilder("{");
+        json.append("\"file\":\"").append(escape(file)).append('"');
+        json.append(",\"characters\":").append(characters);
+        json.append(",\"lines\":").append(lines);
+        json.append(",\"tokens\":").append(tokens);
+        json.append(",\"readMillis\":").append(millis(readNanos));
+        json.append(",\"tokenizeMillis\":").append(millis(tokenizeNanos));
+        json.append(",\"firstPassMillis\":").append(millis(firstPassNanos));
+        json.append(",\"secondPassMillis\":").append(millis(secondPassNanos));
+        json.append(",\"tokensPerSecond\":").append(Math.round(getTokensPerSecond()));
+        json.append(",\"linesPerSecond\":").append(Math.round(getLinesPerSecond()));
+        json.append(",\"lookups\":").append(lookups);
+        json.append(",\"maxScopeDepth\":").append(maxScopeDepth);
+        json.append(",\"subroutineMillis\":[");
+        for (int i = 0; i < subroutineNanos.length; i++) {
+            json.append((i == 0) ? "" : ",").append(millis(subroutineNanos[i]));
+        }
+        return json.append("]}").toString();
+    }
+
+    /* Convert nanoseconds to milliseconds, to the microsecond. */
+    private static double millis(long nanos) {
+        return Math.round(nanos / NANOS_PER_MILLI * 1000) / 1000.0;
+    }
+
+    /* Escape a string for a JSON string literal. */
+    private static String escape(String text) {
+        StringBuilder escaped = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                escaped.append('\\').append(c);
+            } else if (c < ' ') {
+                escaped.append(String.format("\\u%04x", (int) c));
+            } else {
+                escaped.append(c);
+            }
+        }
+        return escaped.toString();
+    }
+
+    @Override
+    public String toString() {
+        return toJson();
+    }
+}
@@ -0,0 +1,51 @@
+package main.Interpreter;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.*;
+
+import static main.Corpus.Fixtures.COUNTER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnalysisMetricsTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testMetricsOfValidFile() throws IOException {
+        Interpreter interpreter = new Interpreter(write(COUNTER).toString());
+        interpreter.interpret();
+        AnalysisMetrics metrics = interpreter.getMetrics();
+
+        assertEquals(14, metrics.getLines());
+        assertEquals(53, metrics.getTokens());
+        assertEquals(2, metrics.getSubroutineNanos().length);
+        assertEquals(6, metrics.getLookups());
+        assertEquals(2, metrics.getMaxScopeDepth());
+        assertTrue(metrics.getTokenizeNanos() > 0);
+        assertTrue(metrics.getSecondPassNanos() > 0);
+        String json = metrics.toJson();
+        assertTrue(json.startsWith("{\"file\":\""));
+        assertTrue(json.contains("\"tokens\":53,"));
+        assertTrue(json.contains("\"lookups\":6,"));
+        assertTrue(json.endsWith("]}"));
+    }
+
+    @Test
+    void testMetricsStopAtFailedStage() throws IOException {
+        Interpreter interpreter = new Interpreter(write(COUNTER.replace("field int count;", "field int count")).toString());
+        assertThrows(InterpreterException.class, interpreter::interpret);
+        AnalysisMetrics metrics = interpreter.getMetrics();
+
+        assertEquals(52, metrics.getTokens());
+        assertEquals(0, metrics.getSecondPassNanos());
+        assertTrue(metrics.getFirstPassNanos() > 0);
+    }
+
+    private Path write(String source) throws IOException {
+        return Files.writeString(directory.resolve("Counter.jack"), source);
+    }
+}
@@ -0,0 +1,59 @@
+package main.Interpreter;
+
+/**
+ * A single error found while analyzing a Jack file: its code, its message and the position it was found at.
+ */
+public class Diagnostic {
+
+    private final ErrorCode code;
+    private final String message;
+    private final int lineNumber;
+    private final int column;
+
+    /**
+     * Constructs new diagnostic.
+     * @param code the code of the error.
+     * @param message the message of the error.
+     * @param lineNumber the line the error was found at, starting at 1.
+     * @param column the column the error was found at, starting at 1, or 0 if unknown.
+     */
+    public Diagnostic(ErrorCode code, String message, int lineNumber, int column) {
+        this.code = code;
+        this.message = message;
+        this.lineNumber = lineNumber;
+        this.column = column;
+    }
+
+    /**
+     * @return the code of the error.
+     */
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    /**
+     * @return the message of the error.
+     */
+    public String getMessage() {
+        return message;
+    }
+
+    /**
+     * @return the line the error was found at.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return the column the error was found at, or 0 if unknown.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    @Override
+    public String toString() {
+        return "Line " + lineNumber + ": " + message + " [" + code + "]";
+    }
+}
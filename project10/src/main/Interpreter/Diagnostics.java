@@ -0,0 +1,54 @@
+package main.Interpreter;
+
+import java.util.*;
+
+/**
+ * Collects the errors found while analyzing a Jack file, in the order they are reported.
+ * As a parser listener, it collects every error the parser recovers from, as well as the one that stops it.
+ */
+public class Diagnostics implements ParserListener {
+
+    private final List<Diagnostic> diagnostics;
+
+    /**
+     * Constructs new empty collector.
+     */
+    public Diagnostics() {
+        this.diagnostics = new ArrayList<>();
+    }
+
+    @Override
+    public void error(ParserException error, int lineNumber) {
+        add(new Diagnostic(error.getCode(), error.getMessage(), lineNumber, error.getColumn()));
+    }
+
+    /**
+     * Add a diagnostic after the ones collected so far.
+     * @param diagnostic the diagnostic to add.
+     */
+    public void add(Diagnostic diagnostic) {
+        diagnostics.add(diagnostic);
+    }
+
+    /**
+     * Add the diagnostics of another collector after the ones collected so far.
+     * @param other the collector to add the diagnostics of.
+     */
+    public void addAll(Diagnostics other) {
+        diagnostics.addAll(other.diagnostics);
+    }
+
+    /**
+     * @return true if any error was collected.
+     */
+    public boolean hasErrors() {
+        return !diagnostics.isEmpty();
+    }
+
+    /**
+     * @return the diagnostics collected, in the order they were reported.
+     */
+    public List<Diagnostic> getDiagnostics() {
+        return Collections.unmodifiableList(diagnostics);
+    }
+}
@@ -0,0 +1,21 @@
+package main.Interpreter;
+
+/**
+ * This enum holds the codes of the errors reported while analyzing a Jack file, so tools can tell errors apart
+ * without parsing their messages.
+ */
+public enum ErrorCode {
+    PARSE_ERROR,
+    UNKNOWN_TOKEN,
+    UNEXPECTED_TOKEN,
+    UNKNOWN_STATEMENT,
+    MISSING_RETURN_STATEMENT,
+    MISMATCHED_BRACES,
+    UNDECLARED_VARIABLE,
+    UNDECLARED_METHOD,
+    VARIABLE_ALREADY_DECLARED,
+    METHOD_ALREADY_DECLARED,
+    INVALID_METHOD_PARAMETER_DEFINITION,
+    INVALID_METHOD_CALL,
+    FAILED_METHOD_SCOPE_INITIALIZATION
+}
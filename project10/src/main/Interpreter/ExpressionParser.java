@@ -0,0 +1,265 @@
+package main.Interpreter;
+
+import static main.Lexer.TokenType.*;
+import main.Lexer.*;
+
+import java.util.Arrays;
+
+/**
+ * Precedence-driven (Pratt) parser for Jack expressions, subroutine calls and their terms.
+ * Binary operators are looked up in a precedence table; an operator only extends the expression it follows if it
+ * binds tighter than the operator that opened that expression. Jack gives all binary operators the same precedence,
+ * so expressions are evaluated left to right: term (op term)*.
+ * The parser is iterative. Nested terms and expressions (parentheses, array entries, call arguments and unary
+ * operators) are kept on an explicit stack of frames instead of the Java call stack, so deeply nested expressions are
+ * parsed in linear time without risking a stack overflow. Tokens are never re-scanned nor backtracked over.
+ * Every expression, term and expression list is reported to the rule events of the enclosing parser.
+ */
+class ExpressionParser {
+
+    /* Precedence of the binary operators, indexed by token type. Any other token has NOT_AN_OPERATOR. */
+    private static final int NOT_AN_OPERATOR = 0;
+    private static final int BINARY_OPERATOR_PRECEDENCE = 1;
+    private static final int[] precedences = new int[TokenType.values().length];
+
+    /* Kinds of the frames of the stack, each waiting for a nested expression or term to complete. */
+    private static final int EXPRESSION_FRAME = 0;
+    private static final int TERM_FRAME = 1;
+    private static final int PARENTHESES_FRAME = 2;
+    private static final int ARRAY_ENTRY_FRAME = 3;
+    private static final int CALL_FRAME = 4;
+
+    private static final int NO_METHOD_NAME = -1;
+    private static final int INITIAL_DEPTH = 16;
+
+    static {
+        for (TokenType operator : new TokenType[] {PLUS, MINUS, TIMES, DIVIDER, AND, OR, LT, GT, EQ}) {
+            precedences[operator.ordinal()] = BINARY_OPERATOR_PRECEDENCE;
+        }
+    }
+
+    private TokenBuffer tokens;
+    private TokenCursor cursor;
+    private SemanticAnalyzer semanticAnalyzer;
+    private RuleEvents ruleEvents;
+
+    /* The stack of frames: the kind of every frame, the minimal precedence of an expression frame or the number of
+     * arguments of a call frame, and the token index of the name of a local subroutine called. */
+    private int[] frameKinds;
+    private int[] frameValues;
+    private int[] frameMethodNames;
+    private int depth;
+
+    /**
+     * Constructs new expression parser, sharing the cursor and rule events of the parser of the enclosing statements.
+     * @param tokens the tokens parsed.
+     * @param cursor the cursor walking over the tokens.
+     * @param semanticAnalyzer analyzer of the scope the expressions are parsed in.
+     * @param ruleEvents the events the rules parsed are reported to.
+     */
+    ExpressionParser(TokenBuffer tokens, TokenCursor cursor, SemanticAnalyzer semanticAnalyzer,
+                     RuleEvents ruleEvents) {
+        this.tokens = tokens;
+        this.cursor = cursor;
+        this.semanticAnalyzer = semanticAnalyzer;
+        this.ruleEvents = ruleEvents;
+        this.frameKinds = new int[INITIAL_DEPTH];
+        this.frameValues = new int[INITIAL_DEPTH];
+        this.frameMethodNames = new int[INITIAL_DEPTH];
+        this.depth = 0;
+    }
+
+    /* Get the precedence of a binary operator, or NOT_AN_OPERATOR. */
+    private static int precedenceOf(TokenType type) {
+        return (type == null) ? NOT_AN_OPERATOR : precedences[type.ordinal()];
+    }
+
+    /**
+     * Parse an expression, starting at the next token: term (op term)*
+     */
+    void parseExpression() {
+        depth = 0;
+        openExpression();
+        parse(true);
+    }
+
+    /**
+     * Parse a subroutine call whose first identifier is the current token:
+     * subroutineName '(' expressionList ')' | (className | varName) '.' subroutineName '(' expressionList ')'
+     */
+    void parseSubroutineCall() {
+        depth = 0;
+        parse(openSubroutineCall());
+    }
+
+    /* Parse until the stack of frames is empty. operandExpected tells whether a term should be parsed first, or the
+     * term just parsed completes the top frame. */
+    private void parse(boolean operandExpected) {
+        while (depth > 0) {
+            operandExpected = operandExpected ? parseTerm() : completeOperand();
+        }
+    }
+
+    /* Open a nested expression, to be completed by the operands that follow. */
+    private void openExpression() {
+        ruleEvents.enter(StatementType.EXPRESSION);
+        pushFrame(EXPRESSION_FRAME, NOT_AN_OPERATOR, NO_METHOD_NAME);
+    }
+
+    /* Parse the beginning of a term: integerConstant | stringConstant | keywordConstant | varName |
+     * varName '[' expression ']' | subroutineCall | '(' expression ')' | unaryOp term
+     * The term stays open, on a frame of its own, until its last operand is complete.
+     * Returns true if a nested expression or term was opened, false if the term is complete. */
+    private boolean parseTerm() {
+        TokenType next = cursor.peek(1);
+        if (!isTermStart(next)) {
+            // Nothing is consumed, so a recovering parser resumes at the offending token.
+            throw new UnexpectedTokenTypeException(null);
+        }
+        TokenType afterNext = cursor.peek(2);
+        ruleEvents.enter(StatementType.TERM);
+        pushFrame(TERM_FRAME, NOT_AN_OPERATOR, NO_METHOD_NAME);
+        cursor.advance();
+        switch (next) {
+            case INTEGER_CONSTANT: case STRING_CONSTANT: case TRUE: case FALSE: case NULL: case THIS:
+                return false;
+            case MINUS: case NOT:
+                return true;
+            case L_PAREN:
+                pushFrame(PARENTHESES_FRAME, NOT_AN_OPERATOR, NO_METHOD_NAME);
+                openExpression();
+                return true;
+            case ID:
+                return parseIdentifierTerm(afterNext);
+            default:
+                throw new UnexpectedTokenTypeException(null);
+        }
+    }
+
+    /* Check whether a term can start with a token of the given type. */
+    private static boolean isTermStart(TokenType type) {
+        if (type == null) {
+            return false;
+        }
+        switch (type) {
+            case INTEGER_CONSTANT: case STRING_CONSTANT: case TRUE: case FALSE: case NULL: case THIS:
+            case MINUS: case NOT: case L_PAREN: case ID:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    /* Parse a term starting with an identifier, already consumed: a variable, an array entry or a subroutine call,
+     * told apart by the token following the identifier, which was looked ahead at with the identifier.
+     * Returns true if a nested expression was opened, false if the term is complete. */
+    private boolean parseIdentifierTerm(TokenType next) {
+        if (next == L_PAREN || next == DOT) {
+            return openSubroutineCall();
+        }
+        semanticAnalyzer.getVariableIfDeclared(cursor.value());
+        if (next == L_BOX_PAREN) {
+            cursor.advance();
+            pushFrame(ARRAY_ENTRY_FRAME, NOT_AN_OPERATOR, NO_METHOD_NAME);
+            openExpression();
+            return true;
+        }
+        return false;
+    }
+
+    /* Open a subroutine call whose first identifier is the current token, up to its opening parenthesis.
+     * Returns true if an argument expression was opened, false if the call is already complete. */
+    private boolean openSubroutineCall() {
+        int methodName = NO_METHOD_NAME;
+        if (cursor.nextType() == DOT) {
+            cursor.advance();
+            expect(ID);
+        } else {
+            methodName = cursor.index(); // only calls to subroutines of the class itself can be verified
+        }
+        expect(L_PAREN);
+        pushFrame(CALL_FRAME, 0, methodName);
+        ruleEvents.enter(StatementType.EXPRESSION_LIST);
+        if (cursor.nextType() == R_PAREN) {
+            closeSubroutineCall();
+            return false;
+        }
+        openExpression();
+        return true;
+    }
+
+    /* Complete the top frame with the operand just parsed.
+     * Returns true if another operand is expected, false if the top frame was completed in turn. */
+    private boolean completeOperand() {
+        int top = depth - 1;
+        switch (frameKinds[top]) {
+            case EXPRESSION_FRAME:
+                int precedence = precedenceOf(cursor.nextType());
+                if (precedence > frameValues[top]) {
+                    cursor.advance();
+                    pushFrame(EXPRESSION_FRAME, precedence, NO_METHOD_NAME);
+                    return true;
+                }
+                if (frameValues[top] == NOT_AN_OPERATOR) {
+                    ruleEvents.exit(StatementType.EXPRESSION); // the operands of an operator are not nested
+                }
+                depth--;
+                return false;
+            case TERM_FRAME:
+                ruleEvents.exit(StatementType.TERM);
+                depth--;
+                return false;
+            case PARENTHESES_FRAME:
+                expect(R_PAREN);
+                depth--;
+                return false;
+            case ARRAY_ENTRY_FRAME:
+                expect(R_BOX_PAREN);
+                depth--;
+                return false;
+            case CALL_FRAME:
+                frameValues[top]++;
+                if (cursor.nextType() == COMMA) {
+                    cursor.advance();
+                    openExpression();
+                    return true;
+                }
+                closeSubroutineCall();
+                return false;
+            default:
+                throw new IllegalStateException("Unknown frame kind: " + frameKinds[top]);
+        }
+    }
+
+    /* Close the subroutine call of the top frame, and match its arguments to the subroutine's parameters. */
+    private void closeSubroutineCall() {
+        int top = depth - 1;
+        ruleEvents.exit(StatementType.EXPRESSION_LIST);
+        expect(R_PAREN);
+        if (frameMethodNames[top] != NO_METHOD_NAME) {
+            semanticAnalyzer.verifyMethodCall(tokens.value(frameMethodNames[top]), frameValues[top]);
+        }
+        depth--;
+    }
+
+    /* Push a frame to the stack. */
+    private void pushFrame(int kind, int value, int methodName) {
+        if (depth == frameKinds.length) {
+            frameKinds = Arrays.copyOf(frameKinds, depth * 2);
+            frameValues = Arrays.copyOf(frameValues, depth * 2);
+            frameMethodNames = Arrays.copyOf(frameMethodNames, depth * 2);
+        }
+        frameKinds[depth] = kind;
+        frameValues[depth] = value;
+        frameMethodNames[depth] = methodName;
+        depth++;
+    }
+
+    /* Consume the next token, checking its type. */
+    private void expect(TokenType expected) {
+        if (cursor.nextType() != expected) {
+            throw new UnexpectedTokenTypeException(expected);
+        }
+        cursor.advance();
+    }
+}
@@ -0,0 +1,83 @@
+package main.Interpreter;
+
+import main.Lexer.Tokenizer;
+import main.Scope.*;
+import org.junit.jupiter.api.*;
+
+import static main.Lexer.TokenType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ExpressionParserTest {
+    private Scope scope;
+
+    @BeforeEach
+    void createScope() {
+        scope = new Scope();
+        scope.addVariable("x", new VariableSymbolBuilder(INT).build());
+        scope.addVariable("arr", new VariableSymbolBuilder(ID).build());
+        MethodSymbol twoParameters = new MethodSymbol(new VariableSymbolBuilder(INT).build());
+        twoParameters.addParameter("a", new VariableSymbolBuilder(INT).build());
+        twoParameters.addParameter("b", new VariableSymbolBuilder(INT).build());
+        scope.addMethod("max", twoParameters);
+        scope.addMethod("next", new MethodSymbol(new VariableSymbolBuilder(INT).build()));
+    }
+
+    @Test
+    void testBinaryOperators() {
+        shouldSuccess("1 + 2 * 3 - x / 4 & 5 | 6 < 7 > 8 = 9");
+    }
+
+    @Test
+    void testTerms() {
+        shouldSuccess("-~-x");
+        shouldSuccess("arr[arr[x] + 1] - (x)");
+        shouldSuccess("max(next(), arr[max(1, 2)]) + Math.abs(-x) + arr.length()");
+        shouldSuccess("\"text\" = null | true & false | this");
+    }
+
+    @Test
+    void testMalformedExpressions() {
+        shouldFail("1 +", UnexpectedTokenTypeException.class);
+        shouldFail("(1 + 2", UnexpectedTokenTypeException.class);
+        shouldFail("arr[1", UnexpectedTokenTypeException.class);
+        shouldFail("max(1, )", UnexpectedTokenTypeException.class);
+        shouldFail("y + 1", UndeclaredVariableUsageException.class);
+        shouldFail("min(1, 2)", UndeclaredMethodUsageException.class);
+        shouldFail("max(1)", InvalidMethodCallException.class);
+        shouldFail("next(x)", InvalidMethodCallException.class);
+    }
+
+    @Test
+    void testStopsAtExpressionEnd() {
+        Parser parser = new Parser(Tokenizer.tokenize("let x = (x + 1) * max(x, 2) ; let x = 1 ;"), scope);
+        assertEquals(StatementType.LET_STATEMENT, parser.parseStatement());
+        assertEquals(StatementType.LET_STATEMENT, parser.parseStatement());
+    }
+
+    @Test
+    void testDeeplyNestedExpression() {
+        int depth = 100000;
+        StringBuilder expression = new StringBuilder();
+        for (int i = 0; i < depth; i++) {
+            expression.append("max(-(arr[");
+        }
+        expression.append('x');
+        for (int i = 0; i < depth; i++) {
+            expression.append("]), x)");
+        }
+        shouldSuccess(expression.toString());
+    }
+
+    private void shouldSuccess(String expression) {
+        newParser(expression).parseStatement();
+    }
+
+    private void shouldFail(String expression, Class<? extends ParserException> exceptionClass) {
+        Parser parser = newParser(expression);
+        assertEquals(exceptionClass, assertThrows(ParserException.class, parser::parseStatement).getClass());
+    }
+
+    private Parser newParser(String expression) {
+        return new Parser(Tokenizer.tokenize("let x = " + expression + ";"), scope);
+    }
+}
@@ -1,262 +1,411 @@
 package main.Interpreter;
 
-import main.Lexer.Tokenizer;
+import main.Lexer.*;
 import main.Scope.*;
-import static main.Interpreter.StatementType.*;
 
 import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.StandardCharsets;
 import java.nio.file.*;
 import java.util.*;
+import java.util.concurrent.*;
 
 /**
- * Carries out the process of interpreting sJavac file.
+ * Carries out the process of interpreting a Jack file.
  * This class encapsulate all classes present on this module.
+ * The source is either read from a file, or given in memory by forSource, in which case it is never read from disk.
  */
 public class Interpreter {
 
-    /* Helper class that keeps track of scope opening and closing. */
-    private static class ScopeHandler {
-        /**
-         * Defines different modes on which the scope handler should operate.
-         */
-        public enum ScopeHandlerMode {
-            MAINTAIN_ONLY, // Maintains scope depth, without instantiating new scope objects.
-            MAINTAIN_AND_SWITCH // In addition to maintaining scope depth, instantiating new scope objects when needed.
-        }
+    private static final String JACK_FILE_SUFFIX = ".jack";
+    private static final String TOKENS_XML_SUFFIX = "T.xml";
+    private static final String PARSE_TREE_XML_SUFFIX = ".xml";
 
-        private static final String OPENING_SCOPE_REGEX = ".*?\\{\\s*";
-        private static final String CLOSING_SCOPE_REGEX = "\\s*}\\s*";
-
-        private Scope scope;
-        private Scope lastScope;
-        private ScopeHandlerMode mode;
-        private int depth;
-        private int lastDepth;
-
-        /**
-         * Initialize new scope handler object with given scope (regarded as global scope), and given mode of operation.
-         * @param globalScope non-null scope object to be initialized.
-         * @param mode the mode of operation.
-         */
-        ScopeHandler(Scope globalScope, ScopeHandlerMode mode) {
-            this.scope = globalScope;
-            this.lastScope = null;
-            this.depth = 0;
-            this.lastDepth = 0;
-            this.mode = mode;
-        }
+    private final Path filepath;
+    private final CharSequence content;
+    private CharSequence source;
+    private TokenBuffer tokens;
+    private List<Integer> methodBodies;
+    private Scope global;
+    private ExecutorService methodExecutor;
+    private Path xmlDirectory;
+    private List<ParserListener> listeners;
+    private Diagnostics diagnostics;
+    private AnalysisMetrics metrics;
+    private List<Path> xmlFiles;
 
-        /**
-         * @return current scope object held in the ScopeHandler.
-         */
-        public Scope getScope() {
-            return scope;
-        }
+    /**
+     * Initialize new interpreter class with given filepath.
+     * @param filepath non-null string represents a filepath (absolute or relative).
+     */
+    public Interpreter(String filepath) {
+        this(filepath, null);
+    }
 
-        /**
-         * @return true if and only if current scope held is global.
-         */
-        boolean isGlobalScope() {
-            return depth == 0;
-        }
+    /* Initialize new interpreter named by the given filepath, with the given content, or null to read the file. */
+    private Interpreter(String filepath, CharSequence content) {
+        this.filepath = Paths.get(filepath);
+        this.content = content;
+        this.global = new Scope();
+        methodBodies = new ArrayList<>();
+        methodExecutor = null;
+        xmlDirectory = null;
+        listeners = new ArrayList<>();
+        diagnostics = new Diagnostics();
+        metrics = new AnalysisMetrics(filepath.toString());
+        xmlFiles = new ArrayList<>();
+    }
 
-        /**
-         * Maintain scope depth based on given line.
-         * @param line line to process.
-         * @throws MismatchBracesException if number of closing braces is greater than the number of opening braces.
-         */
-        void accept(String line) throws MismatchBracesException {
-            if (line == null) { return; }
-            if (shouldOpenScope(line)) {
-                lastDepth = depth++;
-                switchIfNeeded();
-            } else if (shouldCloseScope(line)) {
-                lastDepth = depth--;
-                if (depth < 0) { throw new MismatchBracesException(); }
-                switchIfNeeded();
-            }
-        }
+    /**
+     * Create an interpreter of a source given in memory, e.g. a generated class or the content of an editor buffer.
+     * The source isn't copied, so it must not change until the interpretation is done.
+     * @param name the name reported for the source, as the filepath of a file; the XML files are named after it.
+     * @param source the content of the source.
+     * @return the interpreter of the source.
+     */
+    public static Interpreter forSource(String name, CharSequence source) {
+        return new Interpreter(name, source);
+    }
 
-        /* Determine whether scope should open. */
-        private boolean shouldOpenScope(String line) {
-            return !Tokenizer.isComment(line) && line.matches(OPENING_SCOPE_REGEX);
-        }
+    /**
+     * Create an interpreter of a source given in memory as chars, without copying them.
+     * @param name the name reported for the source.
+     * @param source the content of the source.
+     * @return the interpreter of the source.
+     */
+    public static Interpreter forSource(String name, char[] source) {
+        return new Interpreter(name, CharBuffer.wrap(source));
+    }
 
-        /* Determine whether scope should close. */
-        private boolean shouldCloseScope(String line) {
-            return !Tokenizer.isComment(line) && line.matches(CLOSING_SCOPE_REGEX);
-        }
+    /**
+     * Create an interpreter of a source given in memory as UTF-8 bytes, from the position of the buffer to its
+     * limit. The position of the buffer isn't changed.
+     * @param name the name reported for the source.
+     * @param source the content of the source, encoded in UTF-8.
+     * @return the interpreter of the source.
+     */
+    public static Interpreter forSource(String name, ByteBuffer source) {
+        return new Interpreter(name, StandardCharsets.UTF_8.decode(source.duplicate()));
+    }
 
-        /* Switch scopes if the current scope handler mode requires it. */
-        private void switchIfNeeded() {
-            if (mode == ScopeHandlerMode.MAINTAIN_AND_SWITCH) {
-                if (depth > lastDepth) {
-                    openScope();
-                } else if (depth < lastDepth) {
-                    closeScope();
-                }
-            }
-        }
+    /**
+     * Set the executor used to verify method bodies concurrently during the second stage. Every method body is
+     * verified in its own scope, so bodies are independent once the global scope is populated.
+     * Errors are still reported in source order, as if the methods were verified one after the other.
+     * @param methodExecutor executor to run method verifications on, or null to verify them one after the other.
+     */
+    public void setMethodExecutor(ExecutorService methodExecutor) {
+        this.methodExecutor = methodExecutor;
+    }
 
-        /* Append new scope to the current scope. */
-        private void openScope() {
-            lastScope = scope;
-            scope = new Scope(lastScope);
-        }
+    /**
+     * Set the directory the token XML (xxxT.xml) and parse tree XML (xxx.xml) of the file are written to, where xxx
+     * is the name of the file without its suffix. The parse tree is written in source order, so when it is set, the
+     * method bodies are verified one after the other, while the tree is written.
+     * @param xmlDirectory existing directory to write the XML files to, or null to write none.
+     */
+    public void setXmlDirectory(Path xmlDirectory) {
+        this.xmlDirectory = xmlDirectory;
+    }
 
-        /* Unwind the scope - effectively removes the last scope from the chain. */
-        private void closeScope() {
-            scope = lastScope;
-            lastScope = scope.getPrev();
-        }
+    /**
+     * Add a listener to the events of the second stage, after the listeners added before it. All the listeners are
+     * fed by the same parse of the class, in source order, so when any is added, the method bodies are verified one
+     * after the other.
+     * @param listener the listener to add.
+     */
+    public void addListener(ParserListener listener) {
+        listeners.add(listener);
     }
 
-    private final Path filepath;
-    private List<Integer> methodDeclarationLines;
-    private Scope global;
+    /**
+     * @return the errors found by the interpretation, in source order. The parser recovers from errors inside
+     * declarations and statements, so every error of a stage is collected, not only the first one. A stage with
+     * errors is the last stage run.
+     */
+    public Diagnostics getDiagnostics() {
+        return diagnostics;
+    }
 
     /**
-     * Initialize new interpreter class with given filepath.
-     * @param filepath non-null string represents a filepath (absolute or relative).
+     * @return the measurements of the last interpretation, up to the stage it stopped at. Every stage is also
+     * reported as a JDK Flight Recorder event, as is every method body verified one by one.
      */
-    public Interpreter(String filepath) {
-        this.filepath = Paths.get(filepath);
-        this.global = new Scope();
-        methodDeclarationLines = new ArrayList<>();
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * @return the class scope: the class variables and the subroutines declared by the file, as found by the first
+     * stage of the last interpretation.
+     */
+    public Scope getClassScope() {
+        return global;
+    }
+
+    /**
+     * @return the XML files written by the last interpretation, in the order they were written, the last one being
+     * the file whose writing failed, if any; empty if no XML directory is set.
+     */
+    public List<Path> getXmlFiles() {
+        return xmlFiles;
     }
 
     /**
-     * Interpret the file. This is two stage interpretation. At first, the file is briefly analyzed to populate the
-     * global scope table. The second stage is responsible for interpreting every line.
+     * Get the name the XML files of the given file are named after: the name of the file without its suffix.
+     * @param filepath the path of the file.
+     * @return the base name of the XML files, which they are named after followed by their own suffix.
+     */
+    public static String getXmlBaseName(Path filepath) {
+        String fileName = filepath.getFileName().toString();
+        if (fileName.endsWith(JACK_FILE_SUFFIX)) {
+            fileName = fileName.substring(0, fileName.length() - JACK_FILE_SUFFIX.length());
+        }
+        return fileName;
+    }
+
+    /**
+     * Interpret the file. This is two stage interpretation. At first, the class declarations are analyzed to populate
+     * the global scope table, skipping over the subroutine bodies. The second stage is responsible for interpreting
+     * every subroutine body.
+     * The file is read and tokenized only once; both stages work on the same stream of tokens.
+     * Errors are collected by getDiagnostics; the first of them is thrown as an InterpreterException.
+     * Every call starts over, with a new class scope, so the same interpreter may interpret its file again.
      */
     public void interpret() throws IOException {
-        firstPass(); // not sure first pass is needed - grammar is already syntactically correct
-        secondPass();
+        global = new Scope();
+        methodBodies.clear();
+        diagnostics = new Diagnostics();
+        metrics = new AnalysisMetrics(filepath.toString());
+        xmlFiles = new ArrayList<>();
+        readSource();
+        tokenize();
+        firstPass();
+        bodiesPass();
     }
 
-    /* This function carries out the first stage of the interpretation process.
-     * At this stage, the file is briefly analyzed, restricted to the global scope only.
-     * Global variable declarations are parsed, as well as method declarations. */
-    private void firstPass() throws IOException {
-        try (LineNumberReader reader = new LineNumberReader(Files.newBufferedReader(filepath))) {
-            doFirstPass(reader);
+    /**
+     * Interpret the file, as interpret does, returning its errors instead of throwing the first of them.
+     * @return the errors found by the interpretation, in source order; empty if the file is valid.
+     * @throws IOException if the file couldn't be read, or the XML files couldn't be written. A source given in
+     * memory is never read, so without an XML directory this is never thrown for it.
+     */
+    public Diagnostics analyze() throws IOException {
+        try {
+            interpret();
+        } catch (InterpreterException e) {
+            // Already collected, along with the other errors of its stage.
         }
+        return diagnostics;
     }
 
-    /* Executes the first pass stage. */
-    private void doFirstPass(LineNumberReader reader) throws IOException {
-        ScopeHandler scopeHandler = new ScopeHandler(global, ScopeHandler.ScopeHandlerMode.MAINTAIN_ONLY);
-        Parser globalParser = new Parser(global);
-        for (String line = reader.readLine(); line != null; line = reader.readLine()) {
-            preProcessLine(line, reader.getLineNumber(), scopeHandler, globalParser);
+    /* Read the whole source, unless it was given in memory. */
+    private void readSource() throws IOException {
+        AnalysisEvents.ReadSource event = new AnalysisEvents.ReadSource();
+        event.begin();
+        long start = System.nanoTime();
+        source = (content == null) ? Files.readString(filepath) : content;
+        metrics.recordRead(source.length(), System.nanoTime() - start);
+        event.file = filepath.toString();
+        event.characters = source.length();
+        event.commit();
+    }
 
+    /* Tokenize the whole source. Chars that start no token are left to the parser to report, as ERROR tokens, so
+     * the errors following them are reported as well. */
+    private void tokenize() {
+        AnalysisEvents.Tokenize event = new AnalysisEvents.Tokenize();
+        event.begin();
+        long start = System.nanoTime();
+        tokens = Tokenizer.tokenize(source);
+        metrics.recordTokenize(tokens.size(), tokens.getLineCount(), System.nanoTime() - start);
+        event.file = filepath.toString();
+        event.tokens = tokens.size();
+        event.lines = tokens.getLineCount();
+        event.commit();
     }
 
-    /* Pre-process lines if and only if there exists in the global scope. */
-    private void preProcessLine(String line, int lineNumber, ScopeHandler scopeHandler, Parser globalParser)
-            throws InterpreterException, MismatchBracesException, ParserException, UnknownStatementException {
-        if (scopeHandler.isGlobalScope()) {
-            StatementType statement = globalParser.parse(line);
-            verifyGlobalStatement(statement, lineNumber);
-        }
-        scopeHandler.accept(line);
+    /* Create a parser over the tokens of the file, bound to the given scope, recovering from errors and reporting
+     * them to the given diagnostics. */
+    private Parser createParser(Scope scope, Diagnostics parserDiagnostics) {
+        Parser parser = new Parser(tokens, scope);
+        parser.setRecovery(true);
+        parser.addListener(parserDiagnostics);
+        return parser;
     }
 
-    /* Verify that the given statement is allowed to be in the global scope. */
-    private void verifyGlobalStatement(StatementType statement, int lineNumber){
-        if (statement == null) { return; }
-        SemanticAnalyzer.verifyGlobalStatement(statement);
-        if (statement == METHOD_DECLARATION) {
-            methodDeclarationLines.add(lineNumber); // This is later used by the second interpretation stage.
+    /* Throw the first error collected, if any. */
+    private void throwIfFailed() throws InterpreterException {
+        if (diagnostics.hasErrors()) {
+            Diagnostic first = diagnostics.getDiagnostics().get(0);
+            throw new InterpreterException(first.getLineNumber(), first.getMessage());
         }
     }
 
-    /* Constitutes the second stage of interpretation.
-     * At this stage, the file is analyzed more thoroughly, skipping lines previously analyzed for better performance.
-     * Each "method" line is parsed using the Parser object. */
-    private void secondPass() throws IOException, InterpreterException {
-        try (LineNumberReader lineNumberReader = new LineNumberReader(Files.newBufferedReader(filepath))) {
-            doSecondPass(lineNumberReader);
+    /* Carry out the second stage of the interpretation process, one method body after the other, or while reporting
+     * the events of the whole class to the listeners, if any. */
+    private void bodiesPass() throws IOException, InterpreterException {
+        AnalysisEvents.Pass event = new AnalysisEvents.Pass();
+        event.begin();
+        long start = System.nanoTime();
+        long lookupsBefore = metrics.getLookups();
+        try {
+            if (xmlDirectory == null && listeners.isEmpty()) {
+                secondPass();
+            } else {
+                listenedPass();
+            }
+        } finally {
+            metrics.recordSecondPass(System.nanoTime() - start);
+            event.file = filepath.toString();
+            event.pass = "subroutine bodies";
+            event.lookups = metrics.getLookups() - lookupsBefore;
+            event.commit();
         }
     }
 
-    /* Executes the second pass stage. */
-    private void doSecondPass(LineNumberReader reader) throws IOException, InterpreterException {
+    /* This function carries out the first stage of the interpretation process.
+     * At this stage, the file is briefly analyzed, restricted to the global scope only.
+     * Class variable declarations are parsed, as well as subroutine declarations. */
+    private void firstPass() throws InterpreterException {
+        AnalysisEvents.Pass event = new AnalysisEvents.Pass();
+        event.begin();
+        long start = System.nanoTime();
+        Parser globalParser = createParser(global, diagnostics);
         try {
-            for (int methodOrdinal = 0; methodOrdinal < methodDeclarationLines.size(); methodOrdinal++) {
-                ScopeHandler scopeHandler = new ScopeHandler(global.duplicate(),
-                        ScopeHandler.ScopeHandlerMode.MAINTAIN_AND_SWITCH);
-                skipUntil(reader, methodDeclarationLines.get(methodOrdinal));
-                scopeHandler.accept(reader.readLine()); // As a consequence, open new scope
-                initScopeWithMethodParameters(scopeHandler.getScope(), methodOrdinal, reader.getLineNumber());
-                processMethod(reader, scopeHandler);
-            }
-        } catch (MismatchBracesException e) {
-            throw new InterpreterException(reader.getLineNumber(), e.getMessage());
+            // The subroutine bodies are later used by the second interpretation stage.
+            methodBodies.addAll(globalParser.parseClassDeclarations());
+        } catch (ParserException e) {
+            // Already collected: the parser reports the error that stops it as well.
         }
+        metrics.recordFirstPass(System.nanoTime() - start, globalParser.getLookupCount(),
+                globalParser.getMaxScopeDepth(), methodBodies.size());
+        event.file = filepath.toString();
+        event.pass = "class declarations";
+        event.lookups = globalParser.getLookupCount();
+        event.commit();
+        throwIfFailed();
     }
 
-    /* Keep reading from reader until lineNumBound is reached. */
-    private void skipUntil(LineNumberReader reader, int lineNumBound) throws IOException {
-        for (int i = reader.getLineNumber() + 1; i < lineNumBound; i++){
-            reader.readLine();
+    /* Carry out the second stage of the interpretation process while reporting its events to the listeners: the
+     * whole class is parsed in source order, every subroutine body right after its declaration.
+     * When an XML directory is set, the token XML is written first, and the parse tree XML is written by a listener
+     * of its own. */
+    private void listenedPass() throws IOException, InterpreterException {
+        if (xmlDirectory == null) {
+            parseWithListeners(null);
+            return;
+        }
+        String fileName = getXmlBaseName(filepath);
+        Path tokensFile = xmlDirectory.resolve(fileName + TOKENS_XML_SUFFIX);
+        xmlFiles.add(tokensFile);
+        try (XmlWriter tokensWriter = XmlWriter.create(tokensFile)) {
+            tokensWriter.writeTokens(tokens);
+        }
+        Path treeFile = xmlDirectory.resolve(fileName + PARSE_TREE_XML_SUFFIX);
+        xmlFiles.add(treeFile);
+        try (XmlWriter treeWriter = XmlWriter.create(treeFile)) {
+            parseWithListeners(treeWriter);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
         }
     }
 
-    /* Initialize given scope with the parameters of the method whose location inside the file is
-     given by methodOrdinal.
-     Assume that given scope is newly created, otherwise throws FailedMethodScopeInitializationException. */
-    private void initScopeWithMethodParameters(Scope scope, int methodOrdinal, int lineNumber)
-            throws FailedMethodScopeInitializationException {
+    /* Parse the whole class once, feeding the given listener, if any, and then every listener added. */
+    private void parseWithListeners(ParserListener firstListener) throws InterpreterException {
+        Parser parser = createParser(global, diagnostics);
+        if (firstListener != null) {
+            parser.addListener(firstListener);
+        }
+        for (ParserListener listener : listeners) {
+            parser.addListener(listener);
+        }
         try {
-            MethodSymbol methodSymbol = global.lookupMethod(methodOrdinal);
-            for (Map.Entry<String, VariableSymbol> varEntry : methodSymbol) {
-                scope.addVariable(varEntry.getKey(), varEntry.getValue());
+            parser.parseClass();
+        } catch (ParserException e) {
+            // Already collected: the parser reports the error that stops it as well.
+        }
+        metrics.recordLookups(parser.getLookupCount(), parser.getMaxScopeDepth());
+        throwIfFailed();
+    }
+
+    /* Constitutes the second stage of interpretation.
+     * At this stage, the file is analyzed more thoroughly: the parser jumps straight to every subroutine body. */
+    private void secondPass() throws InterpreterException {
+        if (methodExecutor == null) {
+            for (int methodOrdinal = 0; methodOrdinal < methodBodies.size(); methodOrdinal++) {
+                diagnostics.addAll(verifyMethod(methodOrdinal));
             }
-        } catch (NoSuchSymbolException | SymbolAlreadyExistsException e) {
-            throw new FailedMethodScopeInitializationException(lineNumber);
+        } else {
+            verifyMethodsConcurrently();
         }
+        throwIfFailed();
     }
 
-    /* Reader object contains the first line of a the method block.
-     * ScopeHandler is updated with the method parameters.
-     * This method parses each method line, and validate it. */
-    private void processMethod(LineNumberReader reader, ScopeHandler scopeHandler)
-            throws IOException, InterpreterException, MismatchBracesException {
+    /* Submit every method to the method executor, then wait for them in source order, collecting their errors in
+     * that order. If a verification fails unexpectedly, the verification of the remaining methods is cancelled. */
+    private void verifyMethodsConcurrently() {
+        List<Future<Diagnostics>> verifications = new ArrayList<>(methodBodies.size());
+        for (int methodOrdinal = 0; methodOrdinal < methodBodies.size(); methodOrdinal++) {
+            int ordinal = methodOrdinal;
+            verifications.add(methodExecutor.submit(() -> verifyMethod(ordinal)));
+        }
         try {
-            StatementType statement = null, prevStatement = null;
-            String line;
-            while ((line = reader.readLine()) != null) {
-                scopeHandler.accept(line);
-                Parser parser = new Parser(scopeHandler.getScope());
-                prevStatement = statement;
-                statement = parser.parse(line);
-                validateMethodStatement(statement, reader.getLineNumber());
-                if (scopeHandler.isGlobalScope()) {
-                    break;
-                }
+            for (Future<Diagnostics> verification : verifications) {
+                diagnostics.addAll(awaitVerification(verification));
+            }
+        } finally {
+            for (Future<Diagnostics> verification : verifications) {
+                verification.cancel(true);
             }
-            verifyCorrectMethodClosing(statement, prevStatement, reader.getLineNumber());
-        } catch (ParserException | UnknownStatementException e) {
-            throw new InterpreterException(reader.getLineNumber(), e.getMessage());
         }
     }
 
-    /* Assert that a method block is ended with the correct pattern. */
-    private void verifyCorrectMethodClosing(StatementType statement, StatementType prevStatement, int lineNumber)
-            throws MissingReturnStatementException {
-        if (!(prevStatement == RETURN && statement == CLOSE_SCOPE)) {
-            throw new MissingReturnStatementException(lineNumber);
+    /* Wait for a single method verification, returning its errors, or rethrowing its unexpected failure. */
+    private static Diagnostics awaitVerification(Future<Diagnostics> verification) {
+        try {
+            return verification.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw new IllegalStateException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
         }
     }
 
-    /* Validate that the given method statement is valid. */
-    private void validateMethodStatement(StatementType statement, int lineNumber) throws InterpreterException{
-        if (statement == null) { return; }
+    /* Verify the body of the method whose location inside the file is given by methodOrdinal, in a scope of its own.
+     * Returns the errors of the method, collected apart from the other methods, which may be verified concurrently. */
+    private Diagnostics verifyMethod(int methodOrdinal) {
+        AnalysisEvents.Subroutine event = new AnalysisEvents.Subroutine();
+        event.begin();
+        long start = System.nanoTime();
+        Diagnostics methodDiagnostics = new Diagnostics();
+        int bodyStart = methodBodies.get(methodOrdinal);
+        Scope methodScope;
+        try {
+            methodScope = Parser.createSubroutineScope(global, methodOrdinal);
+        } catch (NoSuchSymbolException | SymbolAlreadyExistsException e) {
+            methodDiagnostics.add(new Diagnostic(ErrorCode.FAILED_METHOD_SCOPE_INITIALIZATION,
+                    "Failed to initialize the subroutine scope.", tokens.line(bodyStart), tokens.column(bodyStart)));
+            return methodDiagnostics;
+        }
+        Parser parser = createParser(methodScope, methodDiagnostics);
         try {
-            SemanticAnalyzer.verifyMethodStatement(statement);
-        } catch (UnexpectedMethodStatementException e) {
-            throw new InterpreterException(lineNumber, e.getMessage());
+            parser.parseSubroutineBody(bodyStart);
+        } catch (ParserException e) {
+            // Already collected: the parser reports the error that stops it as well.
         }
+        metrics.recordSubroutine(methodOrdinal, System.nanoTime() - start, parser.getLookupCount(),
+                parser.getMaxScopeDepth());
+        event.file = filepath.toString();
+        event.ordinal = methodOrdinal;
+        event.lookups = parser.getLookupCount();
+        event.scopeDepth = parser.getMaxScopeDepth();
+        event.commit();
+        return methodDiagnostics;
     }
 }
@@ -0,0 +1,22 @@
+package main.Interpreter;
+
+public class InterpreterException extends RuntimeException {
+    private final int lineNumber;
+
+    /**
+     * Like the parser errors it reports, the exception records no stack trace: it is thrown for every invalid file.
+     * @param lineNumber the number of the line the error was found at.
+     * @param message the message of the error.
+     */
+    InterpreterException(int lineNumber, String message) {
+        super("Line " + lineNumber + ": " + message, null, false, false);
+        this.lineNumber = lineNumber;
+    }
+
+    /**
+     * @return the number of the line the error was found at.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+}
@@ -0,0 +1,105 @@
+package main.Interpreter;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.List;
+import main.Scope.Scope;
+
+import static main.Corpus.Fixtures.COUNTER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class InterpreterTest {
+
+    private static final String NAME = "missing/Counter.jack";
+    @TempDir
+    Path directory;
+
+    @Test
+    void testSourceIsNotReadFromDisk() throws IOException {
+        Interpreter interpreter = Interpreter.forSource(NAME, COUNTER);
+        assertFalse(interpreter.analyze().hasErrors());
+        assertTrue(interpreter.getMetrics().toJson().startsWith("{\"file\":\"" + NAME + "\","));
+        assertEquals(14, interpreter.getMetrics().getLines());
+    }
+
+    @Test
+    void testFileIsStillRead() {
+        assertThrows(IOException.class, () -> new Interpreter(NAME).analyze());
+    }
+
+    @Test
+    void testSourceAsChars() throws IOException {
+        String invalid = COUNTER.replace("count + amount", "count + total");
+        Diagnostics diagnostics = Interpreter.forSource(NAME, invalid.toCharArray()).analyze();
+
+        assertEquals(1, diagnostics.getDiagnostics().size());
+        Diagnostic diagnostic = diagnostics.getDiagnostics().get(0);
+        assertEquals(ErrorCode.UNDECLARED_VARIABLE, diagnostic.getCode());
+        assertEquals(4, diagnostic.getLineNumber());
+    }
+
+    @Test
+    void testSourceAsBytes() throws IOException {
+        byte[] bytes = ("// été\n" + COUNTER).getBytes(StandardCharsets.UTF_8);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(bytes.length + 4);
+        buffer.put(new byte[4]).put(bytes).position(4);
+
+        Interpreter interpreter = Interpreter.forSource(NAME, buffer);
+        assertFalse(interpreter.analyze().hasErrors());
+        assertEquals(15, interpreter.getMetrics().getLines());
+        assertEquals(4, buffer.position());
+    }
+
+    @Test
+    void testAnalyzeCollectsEveryError() throws IOException {
+        String invalid = COUNTER.replace("count + amount", "total").replace("do reset();", "let x = 1;");
+        Interpreter interpreter = Interpreter.forSource(NAME, invalid);
+
+        assertEquals(2, interpreter.analyze().getDiagnostics().size());
+        assertThrows(InterpreterException.class, Interpreter.forSource(NAME, invalid)::interpret);
+    }
+
+    @Test
+    void testAnalyzeRecoversFromUnknownChars() throws IOException {
+        String invalid = COUNTER.replace("count + amount", "count $ amount")
+                .replace("do reset();", "let count = #;\n            let total = 1;");
+        List<Diagnostic> errors = Interpreter.forSource(NAME, invalid).analyze().getDiagnostics();
+
+        assertEquals(3, errors.size());
+        assertEquals(ErrorCode.UNKNOWN_TOKEN, errors.get(0).getCode());
+        assertEquals("Unknown token $.", errors.get(0).getMessage());
+        assertEquals(4, errors.get(0).getLineNumber());
+        assertEquals(27, errors.get(0).getColumn());
+        assertEquals("Unknown token #.", errors.get(1).getMessage());
+        assertEquals(6, errors.get(1).getLineNumber());
+        assertEquals(ErrorCode.UNDECLARED_VARIABLE, errors.get(2).getCode());
+        assertEquals(7, errors.get(2).getLineNumber());
+    }
+
+    @Test
+    void testAnalyzeTwice() throws IOException {
+        Interpreter interpreter = Interpreter.forSource(NAME, COUNTER);
+        assertFalse(interpreter.analyze().hasErrors());
+        Scope firstScope = interpreter.getClassScope();
+
+        assertFalse(interpreter.analyze().hasErrors());
+        assertNotSame(firstScope, interpreter.getClassScope());
+        assertEquals(2, interpreter.getMetrics().getSubroutineNanos().length);
+        assertNotNull(interpreter.getClassScope().lookupMethod("add"));
+    }
+
+    @Test
+    void testXmlFilesAreNamedAfterSource() throws IOException {
+        Interpreter interpreter = Interpreter.forSource(NAME, COUNTER);
+        interpreter.setXmlDirectory(directory);
+        assertFalse(interpreter.analyze().hasErrors());
+
+        assertTrue(Files.exists(directory.resolve("CounterT.xml")));
+        assertTrue(Files.exists(directory.resolve("Counter.xml")));
+    }
+}
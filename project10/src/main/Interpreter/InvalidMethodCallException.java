@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class InvalidMethodCallException extends SemanticAnalyzerException {
+    InvalidMethodCallException(String methodName, int expectedArguments) {
+        super(ErrorCode.INVALID_METHOD_CALL, "Subroutine " + methodName + " expects " + expectedArguments + " arguments.");
+    }
+}
@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class InvalidMethodParameterDefinitionException extends SemanticAnalyzerException {
+    InvalidMethodParameterDefinitionException() {
+        super(ErrorCode.INVALID_METHOD_PARAMETER_DEFINITION, "Invalid subroutine parameter definition.");
+    }
+}
@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class MethodAlreadyDeclaredException extends SemanticAnalyzerException {
+    MethodAlreadyDeclaredException(String methodName) {
+        super(ErrorCode.METHOD_ALREADY_DECLARED, "Subroutine " + methodName + " is already declared.");
+    }
+}
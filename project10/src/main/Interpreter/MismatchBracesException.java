@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class MismatchBracesException extends ParserException {
+    MismatchBracesException() {
+        super(ErrorCode.MISMATCHED_BRACES, "Mismatched braces.");
+    }
+}
@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class MissingReturnStatementException extends ParserException {
+    MissingReturnStatementException() {
+        super(ErrorCode.MISSING_RETURN_STATEMENT, "Subroutine must end with a return statement.");
+    }
+}
@@ -0,0 +1,206 @@
+package main.Interpreter;
+
+import main.Lexer.TokenBuffer;
+
+import java.util.Arrays;
+
+/**
+ * A parse tree stored in an arena: every node is an int handle into parallel arrays holding its kind, its first child,
+ * its next sibling and its token index, instead of an object per node. A node is either a grammar rule, whose token
+ * index is the index of its first token (or NO_TOKEN if it has none), or a token leaf.
+ * The tree takes a small constant times the number of tokens parsed, and all of it is released at once by release.
+ * Nodes are walked either with a cursor (firstChild and nextSibling), or by replaying the tree to a ParserListener.
+ */
+public class ParseTree {
+
+    /**
+     * Handle of no node, e.g. the first child of a leaf.
+     */
+    public static final int NO_NODE = -1;
+
+    /**
+     * Token index of a rule with no token.
+     */
+    public static final int NO_TOKEN = -1;
+
+    private static final int TOKEN_KIND = -1;
+    private static final int MIN_CAPACITY = 16;
+    private static final StatementType[] rules = StatementType.values();
+
+    private TokenBuffer tokens;
+    private int[] kinds;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private int[] tokenIndices;
+    private int size;
+
+    /**
+     * Constructs new empty tree, bound to no tokens yet.
+     */
+    ParseTree() {
+        this.tokens = null;
+        this.kinds = new int[MIN_CAPACITY];
+        this.firstChildren = new int[MIN_CAPACITY];
+        this.nextSiblings = new int[MIN_CAPACITY];
+        this.tokenIndices = new int[MIN_CAPACITY];
+        this.size = 0;
+    }
+
+    /* Bind the tree to the tokens its leaves refer to, making room for the given number of nodes at once. */
+    void bind(TokenBuffer tokens, int capacity) {
+        this.tokens = tokens;
+        if (capacity > kinds.length) {
+            grow(capacity);
+        }
+    }
+
+    /* Append a rule node with no links, returning its handle. */
+    int addRule(StatementType rule) {
+        return addNode(rule.ordinal(), NO_TOKEN);
+    }
+
+    /* Append a token leaf with no links, returning its handle. */
+    int addToken(int tokenIndex) {
+        return addNode(TOKEN_KIND, tokenIndex);
+    }
+
+    /* Link a node as the next sibling of another. */
+    void setNextSibling(int node, int sibling) {
+        nextSiblings[node] = sibling;
+    }
+
+    /* Link a node as the first child of another. */
+    void setFirstChild(int node, int child) {
+        firstChildren[node] = child;
+    }
+
+    /* Set the token index of a rule node. */
+    void setTokenIndex(int node, int tokenIndex) {
+        tokenIndices[node] = tokenIndex;
+    }
+
+    /* Append a node, growing the arena if needed. */
+    private int addNode(int kind, int tokenIndex) {
+        if (size == kinds.length) {
+            grow(size * 2);
+        }
+        kinds[size] = kind;
+        firstChildren[size] = NO_NODE;
+        nextSiblings[size] = NO_NODE;
+        tokenIndices[size] = tokenIndex;
+        return size++;
+    }
+
+    /* Grow the arena arrays to the given capacity. */
+    private void grow(int capacity) {
+        kinds = Arrays.copyOf(kinds, capacity);
+        firstChildren = Arrays.copyOf(firstChildren, capacity);
+        nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+        tokenIndices = Arrays.copyOf(tokenIndices, capacity);
+    }
+
+    /**
+     * @return the first top level node, or NO_NODE if the tree is empty. The other top level nodes are its siblings.
+     */
+    public int root() {
+        return (size == 0) ? NO_NODE : 0;
+    }
+
+    /**
+     * @return the number of nodes in the tree.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the tokens the leaves of the tree refer to.
+     */
+    public TokenBuffer getTokens() {
+        return tokens;
+    }
+
+    /**
+     * @param node handle of a node.
+     * @return true if the node is a token leaf, false if it is a rule.
+     */
+    public boolean isToken(int node) {
+        return kinds[node] == TOKEN_KIND;
+    }
+
+    /**
+     * @param node handle of a node.
+     * @return the grammar rule of the node, or null if the node is a token leaf.
+     */
+    public StatementType rule(int node) {
+        return isToken(node) ? null : rules[kinds[node]];
+    }
+
+    /**
+     * @param node handle of a node.
+     * @return the index of the token of a leaf, or of the first token of a rule (NO_TOKEN if it has none).
+     */
+    public int tokenIndex(int node) {
+        return tokenIndices[node];
+    }
+
+    /**
+     * @param node handle of a node.
+     * @return the first child of the node, or NO_NODE if it has none.
+     */
+    public int firstChild(int node) {
+        return firstChildren[node];
+    }
+
+    /**
+     * @param node handle of a node.
+     * @return the next sibling of the node, or NO_NODE if it has none.
+     */
+    public int nextSibling(int node) {
+        return nextSiblings[node];
+    }
+
+    /**
+     * Replay the tree to the given listener, in source order, as the parser reported it. Uses no recursion, so deep
+     * trees are walked safely.
+     * @param listener the listener to report the rules and tokens of the tree to.
+     */
+    public void walk(ParserListener listener) {
+        int[] ancestors = new int[MIN_CAPACITY];
+        int depth = 0;
+        int node = root();
+        while (node != NO_NODE) {
+            if (isToken(node)) {
+                listener.token(tokens, tokenIndices[node]);
+            } else {
+                listener.enterRule(rule(node));
+                if (firstChildren[node] != NO_NODE) {
+                    if (depth == ancestors.length) {
+                        ancestors = Arrays.copyOf(ancestors, depth * 2);
+                    }
+                    ancestors[depth++] = node;
+                    node = firstChildren[node];
+                    continue;
+                }
+                listener.exitRule(rule(node));
+            }
+            while (nextSiblings[node] == NO_NODE && depth > 0) {
+                node = ancestors[--depth];
+                listener.exitRule(rule(node));
+            }
+            node = nextSiblings[node];
+        }
+    }
+
+    /**
+     * Release the whole tree at once. The tree is empty afterwards, and none of its nodes should be accessed.
+     */
+    public void release() {
+        kinds = new int[0];
+        firstChildren = kinds;
+        nextSiblings = kinds;
+        tokenIndices = kinds;
+        size = 0;
+        tokens = null;
+    }
+}
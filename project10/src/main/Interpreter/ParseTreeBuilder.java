@@ -0,0 +1,88 @@
+package main.Interpreter;
+
+import main.Lexer.TokenBuffer;
+
+import java.util.Arrays;
+
+/**
+ * Parser listener building the ParseTree of the rules and tokens reported to it.
+ * Each event appends a single node to the arena of the tree and links it to its parent's last child, so the tree is
+ * built in time linear in the number of events.
+ */
+public class ParseTreeBuilder implements ParserListener {
+
+    private static final int INITIAL_DEPTH = 16;
+    private static final int NODES_PER_TOKEN = 2;
+
+    private ParseTree tree;
+    private int[] openRules;
+    private int[] lastChildren;
+    private int lastTopLevel;
+    private int depth;
+
+    /**
+     * Constructs new builder, with an empty tree.
+     */
+    public ParseTreeBuilder() {
+        this.tree = new ParseTree();
+        this.openRules = new int[INITIAL_DEPTH];
+        this.lastChildren = new int[INITIAL_DEPTH];
+        this.lastTopLevel = ParseTree.NO_NODE;
+        this.depth = 0;
+    }
+
+    /**
+     * @return the tree built so far. If the parse stopped on an error, the tree holds the rules parsed until then.
+     */
+    public ParseTree getTree() {
+        return tree;
+    }
+
+    @Override
+    public void enterRule(StatementType rule) {
+        int node = tree.addRule(rule);
+        link(node);
+        if (depth == openRules.length) {
+            openRules = Arrays.copyOf(openRules, depth * 2);
+            lastChildren = Arrays.copyOf(lastChildren, depth * 2);
+        }
+        openRules[depth] = node;
+        lastChildren[depth] = ParseTree.NO_NODE;
+        depth++;
+    }
+
+    @Override
+    public void exitRule(StatementType rule) {
+        depth--;
+    }
+
+    @Override
+    public void token(TokenBuffer tokens, int index) {
+        if (tree.getTokens() != tokens) {
+            tree.bind(tokens, tokens.size() * NODES_PER_TOKEN);
+        }
+        link(tree.addToken(index));
+        // Every open rule with no token yet starts at this token; each rule is set once.
+        for (int i = depth - 1; i >= 0 && tree.tokenIndex(openRules[i]) == ParseTree.NO_TOKEN; i--) {
+            tree.setTokenIndex(openRules[i], index);
+        }
+    }
+
+    /* Link a new node as the last child of the innermost open rule, or as the last top level node. */
+    private void link(int node) {
+        if (depth == 0) {
+            if (lastTopLevel != ParseTree.NO_NODE) {
+                tree.setNextSibling(lastTopLevel, node);
+            }
+            lastTopLevel = node;
+            return;
+        }
+        int parent = openRules[depth - 1];
+        if (lastChildren[depth - 1] == ParseTree.NO_NODE) {
+            tree.setFirstChild(parent, node);
+        } else {
+            tree.setNextSibling(lastChildren[depth - 1], node);
+        }
+        lastChildren[depth - 1] = node;
+    }
+}
@@ -0,0 +1,93 @@
+package main.Interpreter;
+
+import main.Lexer.TokenBuffer;
+import main.Lexer.Tokenizer;
+import main.Scope.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static main.Interpreter.StatementType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParseTreeTest {
+
+    private static final String SOURCE = String.join("\n",
+            "class Point {",
+            "    field int x, y;",
+            "    method int norm() {",
+            "        var int n;",
+            "        let n = (x * x) + (y * y);",
+            "        if (~(n < 0)) { return n; }",
+            "        return -n;",
+            "    }",
+            "}");
+
+    @Test
+    void testTreeStructure() {
+        TokenBuffer tokens = Tokenizer.tokenize(SOURCE);
+        ParseTree tree = buildTree(tokens, null);
+
+        int root = tree.root();
+        assertEquals(CLASS_DECLERATION, tree.rule(root));
+        assertEquals(0, tree.tokenIndex(root));
+        assertEquals(ParseTree.NO_NODE, tree.nextSibling(root));
+        int classKeyword = tree.firstChild(root);
+        assertTrue(tree.isToken(classKeyword));
+        assertNull(tree.rule(classKeyword));
+        assertEquals("class", tokens.text(tree.tokenIndex(classKeyword)).toString());
+
+        int child = tree.nextSibling(tree.nextSibling(tree.nextSibling(classKeyword)));
+        assertEquals(CLASS_VAR_DEC, tree.rule(child));
+        assertEquals("field", tokens.text(tree.tokenIndex(child)).toString());
+        child = tree.nextSibling(child);
+        assertEquals(SUBROUTINE_DEC, tree.rule(child));
+        int parameterList = tree.firstChild(child);
+        while (tree.isToken(parameterList)) {
+            parameterList = tree.nextSibling(parameterList);
+        }
+        assertEquals(PARAMETER_LIST, tree.rule(parameterList));
+        assertEquals(ParseTree.NO_NODE, tree.firstChild(parameterList));
+        assertEquals(ParseTree.NO_TOKEN, tree.tokenIndex(parameterList));
+        assertTrue(tree.size() <= 3 * tokens.size());
+    }
+
+    @Test
+    void testWalkReplaysTheParse() throws IOException {
+        TokenBuffer tokens = Tokenizer.tokenize(SOURCE);
+        ByteArrayOutputStream streamed = new ByteArrayOutputStream();
+        ParseTree tree;
+        try (XmlWriter writer = new XmlWriter(Channels.newChannel(streamed))) {
+            tree = buildTree(tokens, writer);
+        }
+        ByteArrayOutputStream walked = new ByteArrayOutputStream();
+        try (XmlWriter writer = new XmlWriter(Channels.newChannel(walked))) {
+            tree.walk(writer);
+        }
+        assertEquals(streamed.toString(StandardCharsets.UTF_8), walked.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testRelease() {
+        ParseTree tree = buildTree(Tokenizer.tokenize(SOURCE), null);
+        tree.release();
+        assertEquals(0, tree.size());
+        assertEquals(ParseTree.NO_NODE, tree.root());
+        assertNull(tree.getTokens());
+    }
+
+    private ParseTree buildTree(TokenBuffer tokens, ParserListener otherListener) {
+        Scope scope = new Scope();
+        new Parser(tokens, scope).parseClassDeclarations();
+        Parser parser = new Parser(tokens, scope);
+        ParseTreeBuilder builder = new ParseTreeBuilder();
+        parser.addListener(builder);
+        if (otherListener != null) {
+            parser.addListener(otherListener);
+        }
+        parser.parseClass();
+        return builder.getTree();
+    }
+}
@@ -1,378 +1,571 @@
 package main.Interpreter;
 
 import static main.Lexer.TokenType.*;
-import static main.Scope.VariableSymbol.Attribute;
-import static main.Scope.VariableSymbol.Attribute;
 import main.Lexer.*;
 import main.Scope.*;
 
 import java.util.*;
-import static java.util.Objects.*;
 
 /**
- * Analyze a line of input and determines whether the line is syntactically correct, as well as semantically correct.
+ * Recursive-descent parser for the Jack grammar, driven by the token stream of a whole file.
+ * Determines whether the tokens are syntactically correct, as well as semantically correct in relation to the scope
+ * the parser is bound to, and updates that scope with the declarations parsed.
+ * Each grammar rule is parsed by its own method, which consumes exactly the tokens of the rule, and reports the rule
+ * to the listeners of the parser, so any number of consumers are fed by a single parse.
+ * With recovery on, an error inside a declaration or a statement is reported to the listeners, and the parser skips
+ * ahead to the end of the broken rule (panic mode), so a single parse reports every error.
  */
 public class Parser {
 
-    private Iterator<Token> tokensIterator;
+    private TokenBuffer tokens;
+    private TokenCursor cursor;
     private SemanticAnalyzer semanticAnalyzer;
+    private ExpressionParser expressionParser;
+    private RuleEvents ruleEvents;
     private Scope scope;
-    private Token currToken;
-    private Token nextToken;
+    private boolean declarationsKnown;
+    private boolean recovering;
+    private boolean branchesReturn;
 
     /**
-     * Create a new parser object in relation to the given scope.
-     * @param scope the scope of the line (the methods and parameters known).
+     * Create a new parser object over the given tokens, in relation to the given scope.
+     * The parser is positioned before the first token.
+     * @param tokens the tokens to parse.
+     * @param scope the scope of the tokens (the methods and variables known).
      */
-    public Parser (Scope scope) {
+    public Parser(TokenBuffer tokens, Scope scope) {
+        this.tokens = tokens;
+        this.cursor = new TokenCursor(tokens);
         this.scope = scope;
         this.semanticAnalyzer = new SemanticAnalyzer(scope);
+        this.ruleEvents = new RuleEvents(tokens, cursor);
+        this.expressionParser = new ExpressionParser(tokens, cursor, semanticAnalyzer, ruleEvents);
+        this.declarationsKnown = false;
+        this.recovering = false;
     }
 
     /**
-     * Main parsing method. Validate that the statement is syntactically correct and semantically correct.
-     * Updates the scope according to the type of parsed statement.
-     * @param line line to parse.
-     * @return null if and only if line has no tokens; else, return the statement type of the line just
-     * parsed.
+     * Rebind the parser to another scope. Following tokens are parsed in relation to that scope.
+     * @param scope the scope of the tokens (the methods and variables known).
      */
-    public StatementType parse(String line) {
-        initParser(line);
-        if (currToken == null) { return null; }
-        // Decide which type of statement is currently parsed.
-        StatementType statement = StatementFactory.getStatement(currToken, nextToken);
-        switch (statement) {
-            case CLASS_DECLERATION:
-                parseClassDecleration();
-                break;
-            case CLASS_VAR_DEC:
-                parseClassVarDecleration();
-                break;
-            case SUBROUTINE_DEC:
-                parseSubRoutineDeclaration();
-                break;
+    public void setScope(Scope scope) {
+        this.scope = scope;
+        this.semanticAnalyzer.setScope(scope);
+    }
 
+    /**
+     * @return the number of variables and methods the parser looked up in its scopes so far.
+     */
+    public long getLookupCount() {
+        return semanticAnalyzer.getLookupCount();
+    }
 
-            case VARIABLE_DECLARATION:
-                parseVariableDeclaration();
-                break;
-            case CONDITIONAL:
-                parseConditional();
-                break;
-            case ASSIGNMENT:
-                parseAssignment();
-                break;
-            case RETURN:
-                expect(SEMICOLON); end();
-                break;
-            case METHOD_CALLING:
-                parseMethodCalling();
-                break;
-            case CLOSE_SCOPE:
-                end();
-                break;
+    /**
+     * @return the depth of the deepest scope the parser was bound to so far.
+     */
+    public int getMaxScopeDepth() {
+        return semanticAnalyzer.getMaxScopeDepth();
+    }
 
+    /**
+     * Report the events of the following tokens to the given listener, after the listeners added before it.
+     * Whole rules are reported by parseClass, parseSubroutineBody and parseStatement; parseClassDeclarations skips
+     * over the subroutine bodies, so its events don't cover every token.
+     * @param listener the listener to add.
+     */
+    public void addListener(ParserListener listener) {
+        ruleEvents.addListener(listener);
+    }
 
-            CLASS_VAR_DEC,
-                    VAR_TYPE,
-                    SUBROUTINE_DEC,
-                    PARAMETER_LIST,
-                    SUBROUTINE_BODY,
-                    VAR_DEC,
-
-                    // todo: ??? needs?
-                    CLASS_NAME,
-                    SUBROUTINE_NAME,
-                    VAR_NAME,
-
-                    STATEMENT,
-                    LET_STATEMENT, // assignment
-                    IF_STATEMENT,
-                    WHILE_STATEMENT,
-                    DO_STATEMENT, // method calling
-                    RETURN_STATEMENT,
-
-                    EXPRESSION,
-                    TERM,
-                    SUBROUTINE_CALL,
-                    EXPRESSION_LIST,
-                    OP,
-                    UNARY_OP,
-                    KEYWORD_CONSTANT,
-
-                    OPEN_SCOPE,
-                    CLOSE_SCOPE
-        }
-        return statement;
+    /**
+     * Turn error recovery on or off. With recovery on, errors inside class variable declarations, subroutine
+     * declarations, local variable declarations and statements are only reported to the listeners, and parsing
+     * resumes after the next ';', or before the '}' closing the enclosing block. Other errors are thrown, as always.
+     * @param recovering true to recover from errors, false to stop at the first one.
+     */
+    public void setRecovery(boolean recovering) {
+        this.recovering = recovering;
     }
 
-    /* This function init's the parser with the next line to parse. */
-    private void initParser(String line) {
-        this.tokensIterator = new Tokenizer(requireNonNull(line));
-        currToken = getNextToken();
-        nextToken = getNextToken();
-    }
-
-    /* This method in is charge of parsing the method declaration. */
-    private void parseSubRoutineDeclaration() {
-        MethodSymbol methodSymbol = new MethodSymbol(new VariableSymbol(VOID));
-        if (nextTokenIs(ID)) {
-            String methodName = currToken.getValue();
-            if (validateMethodName(methodName)) {
-                expect(L_PAREN);
-                if (!nextTokenIs(R_PAREN)) {
-                    do {
-                        matchParameter(methodSymbol);
-                    } while (nextTokenIs(COMMA));
-                    expect(R_PAREN);
-                }
-                expect(L_BRACE);
-                addMethodToScope(methodName, methodSymbol);
-                end();
-            }
+    /**
+     * @return the line of the token the parser stands on, used to report errors.
+     */
+    public int getLineNumber() {
+        if (cursor.hasNext()) {
+            return tokens.line(cursor.index() + 1);
         }
+        return (tokens.size() == 0) ? 0 : tokens.line(tokens.size() - 1);
     }
-    
-    /* This method is in charge of validating the method's name. */
-    private boolean validateMethodName(String methodName) {
+
+    /**
+     * Parse a whole class in source order: 'class' className '{' classVarDec* subroutineDec* '}'.
+     * Every subroutine body is parsed right after its declaration, in a scope of its own, nested in a duplicate of the
+     * class scope. The class declarations are expected to be in the scope already, added by parseClassDeclarations,
+     * so subroutines may be called before they are declared.
+     */
+    public void parseClass() {
+        Scope classScope = scope;
+        declarationsKnown = true;
         try {
-            Tokenizer.validateMethodName(methodName);
-            return true;
-        } catch (UnknownTokenException e) {
-            return false;
+            ruleEvents.enter(StatementType.CLASS_DECLERATION);
+            expect(CLASS);
+            expect(ID);
+            expect(L_BRACE);
+            parseClassVarDeclarations();
+            for (int methodOrdinal = 0; isSubroutineKind(cursor.nextType()); methodOrdinal++) {
+                ruleEvents.enter(StatementType.SUBROUTINE_DEC);
+                parseSubroutineDeclaration();
+                setScope(createSubroutineScope(classScope, methodOrdinal));
+                parseBody(cursor.index() + 1);
+                setScope(classScope);
+                ruleEvents.exit(StatementType.SUBROUTINE_DEC);
+            }
+            expect(R_BRACE);
+            end();
+            ruleEvents.exit(StatementType.CLASS_DECLERATION);
+        } catch (ParserException e) {
+            throw reportError(e);
         }
     }
 
-    /* This method is in charge of matching the parameters in the method declaration and add them to the
-     method's symbol table.*/
-    private void matchParameter(MethodSymbol methodSymbol) throws ParserException {
-        VariableSymbolBuilder varBuilder = new VariableSymbolBuilder().makeInitialized();
-        if (nextTokenIs(FINAL)) {
-            varBuilder.makeFinal();
+    /**
+     * Create the scope of a subroutine body: a scope holding the subroutine parameters, nested in a duplicate of the
+     * class scope.
+     * @param classScope the scope holding the class declarations.
+     * @param methodOrdinal the order of the subroutine in the class.
+     * @return the new subroutine scope.
+     * @throws NoSuchSymbolException if the class has no subroutine of that ordinal.
+     */
+    static Scope createSubroutineScope(Scope classScope, int methodOrdinal) throws NoSuchSymbolException {
+        Scope subroutineScope = new Scope(classScope.duplicate());
+        for (Map.Entry<String, VariableSymbol> varEntry : classScope.lookupMethod(methodOrdinal)) {
+            subroutineScope.addVariable(varEntry.getKey(), varEntry.getValue());
         }
-        matchVariableType(varBuilder);
-        expect(ID);
-        addParameterToMethod(methodSymbol, currToken.getValue(), varBuilder.build());
+        return subroutineScope;
     }
 
-    /* This method adds the parameter the the given method table. */
-    private void addParameterToMethod(MethodSymbol methodSymbol, String varName, VariableSymbol varSymbol)
-            throws InvalidMethodParameterDefinitionException {
+    /**
+     * Parse the declarations of a class, i.e. the class without its subroutine bodies, which are skipped over.
+     * Class variables and subroutines are added to the scope.
+     * @return the index of the first token of every subroutine body, in declaration order.
+     */
+    public List<Integer> parseClassDeclarations() {
+        List<Integer> subroutineBodies = new ArrayList<>();
         try {
-            methodSymbol.addParameter(varName, varSymbol);
-        } catch (SymbolAlreadyExistsException e){
-            throw new InvalidMethodParameterDefinitionException();
+            ruleEvents.enter(StatementType.CLASS_DECLERATION);
+            expect(CLASS);
+            expect(ID);
+            expect(L_BRACE);
+            parseClassVarDeclarations();
+            while (isSubroutineKind(cursor.nextType())) {
+                int ruleDepth = ruleEvents.depth();
+                try {
+                    ruleEvents.enter(StatementType.SUBROUTINE_DEC);
+                    parseSubroutineDeclaration();
+                    subroutineBodies.add(cursor.index() + 1);
+                    skipBlock();
+                    ruleEvents.exit(StatementType.SUBROUTINE_DEC);
+                } catch (ParserException e) {
+                    recover(e, ruleDepth);
+                }
+            }
+            expect(R_BRACE);
+            end();
+            ruleEvents.exit(StatementType.CLASS_DECLERATION);
+        } catch (ParserException e) {
+            throw reportError(e);
         }
+        return subroutineBodies;
     }
 
-    /* This method matches the variable to it's type. */
-    private void matchVariableType(VariableSymbolBuilder varBuilder){
-        for (TokenType varType : SemanticAnalyzer.variableTypes) {
-            if (nextTokenIs(varType)) {
-                varBuilder.setType(varType);
-                return;
-            }
+    /**
+     * Parse the body of a subroutine, starting at the given token: '{' varDec* statements '}'.
+     * The parameters of the subroutine are expected to be in the scope already.
+     * @param bodyStart index of the opening brace of the body.
+     */
+    public void parseSubroutineBody(int bodyStart) {
+        try {
+            parseBody(bodyStart);
+        } catch (ParserException e) {
+            throw reportError(e);
         }
-        throw new InvalidMethodParameterDefinitionException();
     }
 
-    /* This method is in charge of adding the parsed method from the declaration to the scope. */
-    private void addMethodToScope(String methodName, MethodSymbol methodSymbol) throws MethodAlreadyDeclaredException {
+    /**
+     * Parse a single statement, starting at the next token.
+     * @return the statement type of the statement just parsed.
+     */
+    public StatementType parseStatement() {
         try {
-            scope.addMethod(methodName, methodSymbol);
-        }catch (SymbolAlreadyExistsException e) {
-            throw new MethodAlreadyDeclaredException();
+            return parseSingleStatement();
+        } catch (ParserException e) {
+            throw reportError(e);
         }
     }
 
-    /* This method is in charge of parsing the method calling. */
-    private void parseMethodCalling() throws ParserException {
-        String methodName = currToken.getValue();
-        expect(L_PAREN);
-        matchParameters(methodName);
-        expect(R_PAREN);
-        expect(SEMICOLON);
-        end();
+    /* Report an error to the listeners, at the position of the token the parser stands on, unless the error already
+     * has a position of its own, and return it. A token error at an ERROR token is reported as the unknown token it
+     * is, rather than as the token some rule expected instead. */
+    private ParserException reportError(ParserException error) {
+        if (cursor.nextType() == ERROR && isTokenError(error)) {
+            error = new UnknownTokenException(tokens.text(cursor.index() + 1));
+        }
+        if (error.getLineNumber() == 0) {
+            error.setPosition(getLineNumber(), getColumn());
+        }
+        ruleEvents.error(error, error.getLineNumber());
+        return error;
     }
 
-    /* This method is in charge of matching the parameters given in the method calling to the method's
-    actual parameters needed. */
-    private void matchParameters(String methodName) throws ParserException {
-        try {
-            MethodSymbol methodSymbol = scope.lookupMethod(methodName);
-            Iterator<Map.Entry<String, VariableSymbol>> params = methodSymbol.iterator();
-            while (params.hasNext()) {
-                VariableSymbol param = params.next().getValue();
-                matchAssignmentTokenType(param.getType());
-                verifyUsageIfNecessary(param.getType());
-                if (params.hasNext()) {
-                    expect(COMMA);
-                }
-            }
-        } catch (NoSuchSymbolException | SemanticAnalyzerException e){
-            throw new ParserException(e.getMessage());
-        }
+    /* Determine whether the error is about the type of the token the parser stands on. */
+    private static boolean isTokenError(ParserException error) {
+        return error.getCode() == ErrorCode.UNEXPECTED_TOKEN || error.getCode() == ErrorCode.UNKNOWN_STATEMENT;
     }
 
-    /* This method is in charge of parsing the assignment of new values to an existing parameter. */
-    private void parseAssignment() throws ParserException {
-        try {
-            VariableSymbol varSymbol = semanticAnalyzer.getVariableIfDeclared(currToken.getValue());
-            expect(EQUALS);
-            matchExpression(varSymbol);
-            expect(SEMICOLON);
-            end();
-        } catch (SemanticAnalyzerException e){
-            throw new ParserException(e.getMessage());
+    /* Get the column of the token the parser stands on. */
+    private int getColumn() {
+        if (cursor.hasNext()) {
+            return tokens.column(cursor.index() + 1);
         }
+        return (tokens.size() == 0) ? 0 : tokens.column(tokens.size() - 1);
     }
 
-    /* This method is in charge of matching assignment to the variable. */
-    private void matchExpression(VariableSymbol varSymbol) throws ParserException, SemanticAnalyzerException {
-        SemanticAnalyzer.requireNonFinal(varSymbol);
-        matchAssignmentTokenType(varSymbol.getType());
-        verifyAssignmentIfNecessary(varSymbol);
-        varSymbol.toggle(Attribute.INITIALIZED);
+    /* Recover from an error inside a rule entered at the given rule depth: report the error, exit the broken rules
+     * and skip ahead to the end of the broken rule. Without recovery, or if the braces are mismatched, so the end of
+     * the rule can't be found, the error is thrown instead. */
+    private void recover(ParserException error, int ruleDepth) {
+        if (!recovering || error instanceof MismatchBracesException) {
+            throw error;
+        }
+        reportError(error);
+        ruleEvents.exitTo(ruleDepth);
+        synchronize();
+        ruleEvents.skipConsumedTokens();
     }
 
-    /* This method is in charge of verifying the assignment types */
-    private void verifyAssignmentIfNecessary(VariableSymbol varSymbol) throws SemanticAnalyzerException {
-        if (currToken.getType() == ID) {
-            semanticAnalyzer.verifyAssignment(varSymbol, currToken.getValue());
+    /* Skip ahead past the next ';', or up to the '}' closing the enclosing block. A block found on the way belongs
+     * to the broken rule, and is skipped whole, along with an 'else' block following it. */
+    private void synchronize() {
+        while (cursor.hasNext()) {
+            TokenType next = cursor.nextType();
+            if (next == R_BRACE) {
+                return;
+            }
+            cursor.advance();
+            if (next == SEMICOLON) {
+                return;
+            }
+            if (next == L_BRACE) {
+                int closingBrace = tokens.matchingBrace(cursor.index());
+                if (closingBrace < 0) {
+                    throw new MismatchBracesException();
+                }
+                cursor.moveTo(closingBrace);
+                if (cursor.nextType() != ELSE) {
+                    return;
+                }
+            }
         }
     }
 
-    /* This method is in charge of parsing the condition statement */
-    private void parseConditional() throws ParserException {
-        expect(L_PAREN);
-        do {
-            matchCondition();
-        } while(nextTokenIs(AND) || nextTokenIs(OR));
-        expect(R_PAREN);
+    /* This method is in charge of parsing a subroutine body, starting at the given token:
+     * '{' varDec* statements '}' */
+    private void parseBody(int bodyStart) {
+        if (cursor.index() != bodyStart - 1) {
+            cursor.moveTo(bodyStart - 1);
+            ruleEvents.skipConsumedTokens();
+        }
+        ruleEvents.enter(StatementType.SUBROUTINE_BODY);
         expect(L_BRACE);
-        end();
+        while (cursor.nextType() == VAR) {
+            int ruleDepth = ruleEvents.depth();
+            try {
+                parseVariableDeclaration();
+            } catch (ParserException e) {
+                recover(e, ruleDepth);
+            }
+        }
+        boolean returns = parseStatements();
+        expect(R_BRACE);
+        int closingBrace = cursor.index();
+        ruleEvents.exit(StatementType.SUBROUTINE_BODY);
+        if (!returns) {
+            // The error belongs to the body, so it is reported at its closing brace, not at the token following it.
+            ParserException error = new MissingReturnStatementException();
+            error.setPosition(tokens.line(closingBrace), tokens.column(closingBrace));
+            if (!recovering) {
+                throw error;
+            }
+            reportError(error); // nothing to skip, the body is complete
+        }
     }
 
-    /* This method checks if the condition presented is a valid one. */
-    private void matchCondition() throws ParserException {
-        try {
-            matchAssignmentTokenType(BOOLEAN);
-            verifyUsageIfNecessary(BOOLEAN);
-        } catch (SemanticAnalyzerException e) {
-            throw new ParserException(e.getMessage());
+    /* This method is in charge of parsing a single statement, returning its statement type. */
+    private StatementType parseSingleStatement() {
+        StatementType statement = StatementFactory.getStatement(cursor.nextType());
+        ruleEvents.enter(statement);
+        cursor.advance();
+        switch (statement) {
+            case LET_STATEMENT:
+                parseAssignment();
+                break;
+            case IF_STATEMENT:
+                parseConditional();
+                break;
+            case WHILE_STATEMENT:
+                parseLoop();
+                break;
+            case DO_STATEMENT:
+                parseMethodCalling();
+                break;
+            case RETURN_STATEMENT:
+                parseReturn();
+                break;
+            default:
+                throw new UnknownStatementException();
         }
+        ruleEvents.exit(statement);
+        return statement;
     }
 
-    /* This method is in charge of parsing the variable declaration */
-    private void parseVariableDeclaration() throws ParserException {
-        if (currToken.getType() == FINAL) {
-            parseFinalVariableDeclaration(nextToken.getType());
-        } else {
-            parseNonFinalVariableDeclaration(currToken.getType());
+    /* This method is in charge of parsing statement* up to the closing brace of the enclosing block.
+     * Returns whether the statements always return: the last one is a return statement, or an if statement with an
+     * else block, both blocks of which always return. A broken statement counts as returning if it starts with
+     * 'return', so a missing return isn't reported on top of it. */
+    private boolean parseStatements() {
+        boolean returns = false;
+        ruleEvents.enter(StatementType.STATEMENTS);
+        while (cursor.hasNext() && cursor.nextType() != R_BRACE) {
+            int ruleDepth = ruleEvents.depth();
+            TokenType first = cursor.nextType();
+            try {
+                StatementType statement = parseSingleStatement();
+                returns = statement == StatementType.RETURN_STATEMENT
+                        || (statement == StatementType.IF_STATEMENT && branchesReturn);
+            } catch (ParserException e) {
+                recover(e, ruleDepth);
+                returns = first == RETURN;
+            }
+        }
+        ruleEvents.exit(StatementType.STATEMENTS);
+        return returns;
+    }
+
+    /* This method is in charge of parsing classVarDec*, recovering from broken declarations. */
+    private void parseClassVarDeclarations() {
+        while (isClassVarKind(cursor.nextType())) {
+            int ruleDepth = ruleEvents.depth();
+            try {
+                parseClassVarDeclaration();
+            } catch (ParserException e) {
+                recover(e, ruleDepth);
+            }
         }
     }
 
-    /* This method is in charge of parsing a declaration of a final variable. */
-    private void parseFinalVariableDeclaration(TokenType varType) throws ParserException {
-        expect(varType);
+    /* This method is in charge of parsing a class variable declaration:
+     * ('static' | 'field') type varName (',' varName)* ';'
+     * The variables are added to the scope, unless the class declarations are already known. */
+    private void parseClassVarDeclaration() {
+        ruleEvents.enter(StatementType.CLASS_VAR_DEC);
+        cursor.advance();
+        TokenType varType = matchVariableType();
         do {
             expect(ID);
-            matchAssignment(varType);
+            if (!declarationsKnown) {
+                addVariableToScope(cursor.value(), new VariableSymbolBuilder(varType).build());
+            }
         } while (nextTokenIs(COMMA));
         expect(SEMICOLON);
-        end();
+        ruleEvents.exit(StatementType.CLASS_VAR_DEC);
     }
 
-    /* This method is in charge of matching between assignments by type.  */
-    private void matchAssignment(TokenType varType) throws ParserException {
-        String varName = currToken.getValue();
-        expect(EQUALS);
-        addToScopeIfSemanticallyCorrect(varName,
-                new VariableSymbolBuilder(varType).makeFinal().makeInitialized().build());
+    /* Determine whether the given token type starts a class variable declaration. */
+    private static boolean isClassVarKind(TokenType type) {
+        return type == STATIC || type == FIELD;
     }
 
-    /* This method is in charge of parsing a non final variable. */
-    private void parseNonFinalVariableDeclaration(TokenType varType) throws ParserException {
-        do {
-            VariableSymbolBuilder varBuilder = new VariableSymbolBuilder(varType);
-            expect(ID);
-            matchOptionalAssignment(currToken.getValue(), varBuilder);
-        } while (nextTokenIs(COMMA));
-        expect(SEMICOLON);
-        end();
+    /* Determine whether the given token type starts a subroutine declaration. */
+    private static boolean isSubroutineKind(TokenType type) {
+        return type == CONSTRUCTOR || type == FUNCTION || type == METHOD;
+    }
+
+    /* This method is in charge of parsing the method declaration:
+     * ('constructor' | 'function' | 'method') ('void' | type) subroutineName '(' parameterList ')'
+     * The method is added to the scope, unless the class declarations are already known. */
+    private void parseSubroutineDeclaration() {
+        cursor.advance();
+        TokenType returnType = nextTokenIs(VOID) ? VOID : matchVariableType();
+        MethodSymbol methodSymbol = new MethodSymbol(new VariableSymbol(returnType));
+        expect(ID);
+        String methodName = cursor.value();
+        if (!Tokenizer.isValidMethodName(methodName)) {
+            throw new UnexpectedTokenTypeException(ID);
+        }
+        expect(L_PAREN);
+        ruleEvents.enter(StatementType.PARAMETER_LIST);
+        if (cursor.nextType() != R_PAREN) {
+            do {
+                matchParameter(methodSymbol);
+            } while (nextTokenIs(COMMA));
+        }
+        ruleEvents.exit(StatementType.PARAMETER_LIST);
+        expect(R_PAREN);
+        if (!declarationsKnown) {
+            addMethodToScope(methodName, methodSymbol);
+        }
+    }
+
+    /* This method is in charge of matching the parameters in the method declaration and add them to the
+     method's symbol table.*/
+    private void matchParameter(MethodSymbol methodSymbol) {
+        VariableSymbolBuilder varBuilder = new VariableSymbolBuilder(matchVariableType());
+        expect(ID);
+        addParameterToMethod(methodSymbol, cursor.value(), varBuilder.build());
+    }
+
+    /* This method adds the parameter the the given method table. */
+    private void addParameterToMethod(MethodSymbol methodSymbol, String varName, VariableSymbol varSymbol) {
+        try {
+            methodSymbol.addParameter(varName, varSymbol);
+        } catch (SymbolAlreadyExistsException e) {
+            throw new InvalidMethodParameterDefinitionException();
+        }
     }
 
-    /* This method is in charge of matching the optional assignment (if exists) to the declared variable. */
-    private void matchOptionalAssignment(String varName, VariableSymbolBuilder varBuilder) throws ParserException {
-        if (nextTokenIs(EQUALS)) {
-            varBuilder.makeInitialized();
-            addToScopeIfSemanticallyCorrect(varName, varBuilder.build());
-        } else {
-            addVariableToScope(varName, varBuilder.build());
+    /* This method matches a variable type: 'int' | 'char' | 'boolean' | className. */
+    private TokenType matchVariableType() {
+        for (TokenType varType : SemanticAnalyzer.variableTypes) {
+            if (nextTokenIs(varType)) {
+                return varType;
+            }
         }
+        throw new UnexpectedTokenTypeException(ID);
     }
-    /* This method is in charge of checking if the variable should be added to the scope */
-    private void addToScopeIfSemanticallyCorrect(String varName, VariableSymbol varSymbol) throws ParserException {
+
+    /* This method is in charge of adding the parsed method from the declaration to the scope. */
+    private void addMethodToScope(String methodName, MethodSymbol methodSymbol) {
         try {
-            matchAssignmentTokenType(varSymbol.getType());
-            verifyUsageIfNecessary(varSymbol.getType());
-            addVariableToScope(varName, varSymbol);
-        } catch (SemanticAnalyzerException e) {
-            throw new ParserException(e.getMessage());
+            scope.addMethod(methodName, methodSymbol);
+        } catch (SymbolAlreadyExistsException e) {
+            throw new MethodAlreadyDeclaredException(methodName);
         }
     }
 
-    private void matchAssignmentTokenType(TokenType varType) throws InvalidTokenForAssignment, ParserException {
-        expect(semanticAnalyzer.verifyAssignmentTokenType(varType, nextToken.getType()));
+    /* This method skips over a block, from its opening brace straight to the matching closing brace. */
+    private void skipBlock() {
+        expect(L_BRACE);
+        int closingBrace = tokens.matchingBrace(cursor.index());
+        if (closingBrace < 0) {
+            throw new MismatchBracesException();
+        }
+        cursor.moveTo(closingBrace);
+    }
+
+    /* This method is in charge of parsing a local variable declaration: 'var' type varName (',' varName)* ';' */
+    private void parseVariableDeclaration() {
+        ruleEvents.enter(StatementType.VAR_DEC);
+        cursor.advance();
+        TokenType varType = matchVariableType();
+        do {
+            expect(ID);
+            addVariableToScope(cursor.value(), new VariableSymbolBuilder(varType).build());
+        } while (nextTokenIs(COMMA));
+        expect(SEMICOLON);
+        ruleEvents.exit(StatementType.VAR_DEC);
     }
 
     /* This method is in charge of adding the variable to the scope */
-    private void addVariableToScope(String varName, VariableSymbol varSymbol) throws VariableAlreadyDeclaredException {
+    private void addVariableToScope(String varName, VariableSymbol varSymbol) {
         try {
             scope.addVariable(varName, varSymbol);
         } catch (SymbolAlreadyExistsException e) {
-            throw new VariableAlreadyDeclaredException();
+            throw new VariableAlreadyDeclaredException(varName);
         }
     }
 
-    /* This method is in charge of verifying the usage of the ID */
-    private void verifyUsageIfNecessary(TokenType varType) throws SemanticAnalyzerException {
-        if (currToken.getType() == ID) {
-            semanticAnalyzer.verifyVariableUsage(varType, currToken.getValue());
+    /* This method is in charge of parsing the assignment of new values to an existing variable, after its 'let'
+     * keyword: varName ('[' expression ']')? '=' expression ';' */
+    private void parseAssignment() {
+        expect(ID);
+        semanticAnalyzer.getVariableIfDeclared(cursor.value());
+        if (nextTokenIs(L_BOX_PAREN)) {
+            expressionParser.parseExpression();
+            expect(R_BOX_PAREN);
         }
+        expect(EQ);
+        expressionParser.parseExpression();
+        expect(SEMICOLON);
+    }
+
+    /* This method is in charge of parsing the condition statement, after its 'if' keyword:
+     * '(' expression ')' '{' statements '}' ('else' '{' statements '}')?
+     * Records whether both blocks always return, which is never the case without an else block. */
+    private void parseConditional() {
+        parseCondition();
+        boolean thenReturns = parseBlock();
+        boolean elseReturns = nextTokenIs(ELSE) && parseBlock();
+        branchesReturn = thenReturns && elseReturns;
     }
 
-    /* Assert that the statement should terminate, i.e. no more tokens are expected. */
-    private void end() throws ParserException{
-        if (nextToken != null) {
+    /* This method is in charge of parsing the loop statement, after its 'while' keyword:
+     * '(' expression ')' '{' statements '}' */
+    private void parseLoop() {
+        parseCondition();
+        parseBlock();
+    }
+
+    /* This method is in charge of parsing a condition: '(' expression ')' */
+    private void parseCondition() {
+        expect(L_PAREN);
+        expressionParser.parseExpression();
+        expect(R_PAREN);
+    }
+
+    /* This method is in charge of parsing a block of statements: '{' statements '}'
+     * Returns whether the statements always return. */
+    private boolean parseBlock() {
+        expect(L_BRACE);
+        boolean returns = parseStatements();
+        expect(R_BRACE);
+        return returns;
+    }
+
+    /* This method is in charge of parsing the method calling, after its 'do' keyword: subroutineCall ';' */
+    private void parseMethodCalling() {
+        expect(ID);
+        expressionParser.parseSubroutineCall();
+        expect(SEMICOLON);
+    }
+
+    /* This method is in charge of parsing the return statement, after its 'return' keyword: expression? ';' */
+    private void parseReturn() {
+        if (!nextTokenIs(SEMICOLON)) {
+            expressionParser.parseExpression();
+            expect(SEMICOLON);
+        }
+    }
+
+    /* Assert that the tokens should terminate, i.e. no more tokens are expected. */
+    private void end() {
+        if (cursor.hasNext()) {
             throw new UnexpectedTokenTypeException(null);
         }
     }
 
     /* This method calls the next token and checks it's type */
-    private boolean nextTokenIs(TokenType type) throws ParserException {
-        if (nextToken != null && nextToken.getType() == type) {
-            currToken = nextToken;
-            nextToken = getNextToken();
+    private boolean nextTokenIs(TokenType type) {
+        if (cursor.nextType() == type) {
+            cursor.advance();
             return true;
         }
         return false;
     }
+
     /* This method is in charge of checking the current token's type */
-    private void expect(TokenType expected) throws ParserException {
+    private void expect(TokenType expected) {
         if (!nextTokenIs(expected)) {
             throw new UnexpectedTokenTypeException(expected);
         }
     }
-    /* This method is in charge of getting the next token. */
-    private Token getNextToken() throws ParserException {
-        if (tokensIterator.hasNext()){
-            try {
-                return tokensIterator.next();
-            } catch (UnknownTokenException e) {
-                throw new ParserException(e.getMessage());
-            }
-        }
-        return null;
-    }
 }
@@ -0,0 +1,50 @@
+package main.Interpreter;
+
+public class ParserException extends RuntimeException {
+    private final ErrorCode code;
+    private int lineNumber;
+    private int column;
+
+    public ParserException(String message) {
+        this(ErrorCode.PARSE_ERROR, message);
+    }
+
+    /**
+     * Parser errors are expected on invalid input, and are reported by their code and position; filling in a stack
+     * trace for every one of them would cost more than the parse itself, so none is recorded.
+     * @param code the code of the error.
+     * @param message the message of the error.
+     */
+    ParserException(ErrorCode code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+    }
+
+    /**
+     * @return the code of the error.
+     */
+    public ErrorCode getCode() {
+        return code;
+    }
+
+    /**
+     * @return the number of the line the error was found at, or 0 if it wasn't reported yet.
+     */
+    public int getLineNumber() {
+        return lineNumber;
+    }
+
+    /**
+     * @return the column the error was found at, or 0 if it wasn't reported yet.
+     */
+    public int getColumn() {
+        return column;
+    }
+
+    /* Set the position the error was found at, when the parser reports it, or when the error belongs to a token
+     * the parser already passed. */
+    void setPosition(int lineNumber, int column) {
+        this.lineNumber = lineNumber;
+        this.column = column;
+    }
+}
@@ -0,0 +1,43 @@
+package main.Interpreter;
+
+import main.Lexer.TokenBuffer;
+
+/**
+ * Receives the events of a parse as they happen, in source order: the grammar rules entered and exited, every token
+ * consumed, and the errors found by the parse, if any. Several listeners can be added to the same parser, so a
+ * single parse feeds all of them, e.g. an XML writer, metrics and further semantic checks, without building a tree.
+ * Every event has an empty default implementation, so a listener only implements the events it needs.
+ */
+public interface ParserListener {
+
+    /**
+     * Called when the parser enters a grammar rule, before its first token.
+     * @param rule the grammar rule entered.
+     */
+    default void enterRule(StatementType rule) {
+    }
+
+    /**
+     * Called when the parser exits a grammar rule, after its last token.
+     * @param rule the grammar rule exited.
+     */
+    default void exitRule(StatementType rule) {
+    }
+
+    /**
+     * Called for every token consumed by the parser, after the event of the rule it belongs to was called.
+     * @param tokens the tokens parsed, the token shouldn't be accessed once the event returns.
+     * @param index index of the token.
+     */
+    default void token(TokenBuffer tokens, int index) {
+    }
+
+    /**
+     * Called when the parse stops on an error, before the error is thrown to the caller of the parser, or, with
+     * recovery on, when the parser recovers from an error, before it skips ahead to the end of the broken rule.
+     * @param error the error.
+     * @param lineNumber the line the error was found at.
+     */
+    default void error(ParserException error, int lineNumber) {
+    }
+}
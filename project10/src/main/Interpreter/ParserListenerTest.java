@@ -0,0 +1,118 @@
+package main.Interpreter;
+
+import main.Lexer.TokenBuffer;
+import main.Lexer.Tokenizer;
+import main.Scope.*;
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static main.Corpus.Fixtures.COUNTER;
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserListenerTest {
+
+    /* Records every event as a line of text. */
+    private static class RecordingListener implements ParserListener {
+        private final List<String> events = new ArrayList<>();
+
+        @Override
+        public void enterRule(StatementType rule) {
+            events.add("enter " + rule);
+        }
+
+        @Override
+        public void exitRule(StatementType rule) {
+            events.add("exit " + rule);
+        }
+
+        @Override
+        public void token(TokenBuffer tokens, int index) {
+            events.add("token " + tokens.text(index));
+        }
+
+        @Override
+        public void error(ParserException error, int lineNumber) {
+            events.add("error " + lineNumber);
+        }
+    }
+
+    @Test
+    void testListenersShareOneParse() {
+        TokenBuffer tokens = Tokenizer.tokenize(COUNTER);
+        RecordingListener first = new RecordingListener();
+        RecordingListener second = new RecordingListener();
+        parseClass(tokens, first, second);
+
+        assertEquals(first.events, second.events);
+        assertEquals("enter CLASS_DECLERATION", first.events.get(0));
+        assertEquals("exit CLASS_DECLERATION", first.events.get(first.events.size() - 1));
+        List<String> reportedTokens = new ArrayList<>();
+        for (String event : first.events) {
+            if (event.startsWith("token ")) {
+                reportedTokens.add(event.substring("token ".length()));
+            }
+        }
+        assertEquals(tokens.size(), reportedTokens.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(tokens.text(i).toString(), reportedTokens.get(i));
+        }
+        assertEquals(Collections.frequency(first.events, "enter SUBROUTINE_BODY"),
+                Collections.frequency(first.events, "exit SUBROUTINE_BODY"));
+        assertTrue(first.events.contains("enter DO_STATEMENT"));
+    }
+
+    @Test
+    void testErrorEvent() {
+        TokenBuffer tokens = Tokenizer.tokenize(COUNTER.replace("do reset();", "do reset(1);"));
+        RecordingListener listener = new RecordingListener();
+        assertThrows(InvalidMethodCallException.class, () -> parseClass(tokens, listener));
+        assertEquals("error 6", listener.events.get(listener.events.size() - 1));
+    }
+
+    @Test
+    void testMissingReturnReportedAtClosingBrace() {
+        String source = COUNTER.substring(0, COUNTER.lastIndexOf("        return;")) + "    }\n}";
+        TokenBuffer tokens = Tokenizer.tokenize(source);
+        RecordingListener listener = new RecordingListener();
+        MissingReturnStatementException error =
+                assertThrows(MissingReturnStatementException.class, () -> parseClass(tokens, listener));
+        assertEquals(12, error.getLineNumber());
+        assertEquals(5, error.getColumn());
+        assertTrue(listener.events.contains("error 12"));
+    }
+
+    @Test
+    void testRecoveryReportsEveryError() {
+        TokenBuffer tokens = Tokenizer.tokenize(COUNTER.replace("do reset();", "do reset(1);")
+                .replace("let count = 0;", "let count = ;"));
+        Scope scope = new Scope();
+        new Parser(tokens, scope).parseClassDeclarations();
+        Parser parser = new Parser(tokens, scope);
+        parser.setRecovery(true);
+        Diagnostics diagnostics = new Diagnostics();
+        RecordingListener listener = new RecordingListener();
+        parser.addListener(diagnostics);
+        parser.addListener(listener);
+        parser.parseClass();
+
+        List<Diagnostic> errors = diagnostics.getDiagnostics();
+        assertEquals(2, errors.size());
+        assertEquals(ErrorCode.INVALID_METHOD_CALL, errors.get(0).getCode());
+        assertEquals(6, errors.get(0).getLineNumber());
+        assertEquals(11, errors.get(1).getLineNumber());
+        assertEquals(Collections.frequency(listener.events, "enter DO_STATEMENT"),
+                Collections.frequency(listener.events, "exit DO_STATEMENT"));
+        assertEquals("exit CLASS_DECLERATION", listener.events.get(listener.events.size() - 1));
+    }
+
+    private void parseClass(TokenBuffer tokens, ParserListener... listeners) {
+        Scope scope = new Scope();
+        new Parser(tokens, scope).parseClassDeclarations();
+        Parser parser = new Parser(tokens, scope);
+        for (ParserListener listener : listeners) {
+            parser.addListener(listener);
+        }
+        parser.parseClass();
+    }
+}
@@ -0,0 +1,43 @@
+package main.Interpreter;
+
+import main.Lexer.Tokenizer;
+import main.Lexer.TokenBuffer;
+import main.Scope.Scope;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ParserTest {
+
+    @Test
+    void testBodyEndingInReturningBranchesReturns() {
+        assertReturns("if (c) { return 1; } else { return 2; }");
+        assertReturns("if (c) { let c = false; return 1; } else { if (~c) { return 2; } else { return 3; } }");
+        assertReturns("while (c) { let c = false; } return 0;");
+    }
+
+    @Test
+    void testBodyEndingInBranchWithoutReturnIsMissingReturn() {
+        assertMissingReturn("if (c) { return 1; }");
+        assertMissingReturn("if (c) { return 1; } else { let c = false; }");
+        assertMissingReturn("if (c) { return 1; } else { if (~c) { return 2; } }");
+        assertMissingReturn("while (c) { return 1; }");
+        assertMissingReturn("return 1; let c = false;");
+    }
+
+    private void assertReturns(String statements) {
+        assertDoesNotThrow(() -> parseClass(statements));
+    }
+
+    private void assertMissingReturn(String statements) {
+        assertThrows(MissingReturnStatementException.class, () -> parseClass(statements));
+    }
+
+    private void parseClass(String statements) {
+        TokenBuffer tokens = Tokenizer.tokenize(
+                "class Branches { function int pick(boolean c) { " + statements + " } }");
+        Scope scope = new Scope();
+        new Parser(tokens, scope).parseClassDeclarations();
+        new Parser(tokens, scope).parseClass();
+    }
+}
@@ -0,0 +1,131 @@
+package main.Interpreter;
+
+import main.Lexer.*;
+
+import java.util.Arrays;
+
+/**
+ * Reports the grammar rules entered and exited by a parser, together with the tokens consumed in between, to the
+ * listeners of the parser, in the order they were added.
+ * Tokens aren't reported one by one as they are consumed: every event first reports the tokens consumed since the
+ * previous event, so tokens are reported in source order without the grammar rules having to track them.
+ */
+class RuleEvents {
+
+    private static final ParserListener[] NO_LISTENERS = new ParserListener[0];
+    private static final int INITIAL_DEPTH = 16;
+
+    private TokenBuffer tokens;
+    private TokenCursor cursor;
+    private ParserListener[] listeners;
+    private int lastReported;
+
+    /* The rules entered and not exited yet, innermost last. */
+    private StatementType[] openRules;
+    private int depth;
+
+    /**
+     * Constructs new rule events of the parser walking over tokens with the given cursor, with no listener.
+     * @param tokens the tokens parsed.
+     * @param cursor the cursor of the parser.
+     */
+    RuleEvents(TokenBuffer tokens, TokenCursor cursor) {
+        this.tokens = tokens;
+        this.cursor = cursor;
+        this.listeners = NO_LISTENERS;
+        this.openRules = new StatementType[INITIAL_DEPTH];
+        this.depth = 0;
+    }
+
+    /**
+     * Report the following events to the given listener as well, after the listeners added before it.
+     * Tokens consumed before the first listener is added are not reported.
+     * @param listener the listener to add.
+     */
+    void addListener(ParserListener listener) {
+        if (listeners.length == 0) {
+            lastReported = cursor.index();
+        }
+        listeners = Arrays.copyOf(listeners, listeners.length + 1);
+        listeners[listeners.length - 1] = listener;
+    }
+
+    /**
+     * Report that the parser enters a rule, before consuming its first token.
+     * @param rule the grammar rule.
+     */
+    void enter(StatementType rule) {
+        if (depth == openRules.length) {
+            openRules = Arrays.copyOf(openRules, depth * 2);
+        }
+        openRules[depth++] = rule;
+        if (listeners.length > 0) {
+            reportConsumedTokens();
+            for (ParserListener listener : listeners) {
+                listener.enterRule(rule);
+            }
+        }
+    }
+
+    /**
+     * Report that the parser exits a rule, after consuming its last token.
+     * @param rule the grammar rule.
+     */
+    void exit(StatementType rule) {
+        depth--;
+        if (listeners.length > 0) {
+            reportConsumedTokens();
+            for (ParserListener listener : listeners) {
+                listener.exitRule(rule);
+            }
+        }
+    }
+
+    /**
+     * @return the number of rules entered and not exited yet.
+     */
+    int depth() {
+        return depth;
+    }
+
+    /**
+     * Exit every rule entered since the given depth, innermost first, e.g. when the parser gave up on a broken rule.
+     * @param ruleDepth the depth to return to.
+     */
+    void exitTo(int ruleDepth) {
+        while (depth > ruleDepth) {
+            exit(openRules[depth - 1]);
+        }
+    }
+
+    /**
+     * Report an error found by the parser, whether it stopped the parser or the parser recovered from it.
+     * @param error the error.
+     * @param lineNumber the line the error was found at.
+     */
+    void error(ParserException error, int lineNumber) {
+        if (listeners.length > 0) {
+            reportConsumedTokens();
+            for (ParserListener listener : listeners) {
+                listener.error(error, lineNumber);
+            }
+        }
+    }
+
+    /**
+     * Don't report the tokens consumed so far, e.g. when the parser jumped over them.
+     */
+    void skipConsumedTokens() {
+        lastReported = cursor.index();
+    }
+
+    /* Report the tokens consumed since the previous event. */
+    private void reportConsumedTokens() {
+        while (lastReported < cursor.index()) {
+            lastReported++;
+            for (ParserListener listener : listeners) {
+                listener.token(tokens, lastReported);
+            }
+        }
+    }
+}
@@ -0,0 +1,185 @@
+package main.Interpreter;
+
+import java.io.*;
+import java.util.Arrays;
+import java.util.function.LongSupplier;
+
+/**
+ * Parser listener timing every grammar rule, as a stack of the rules it is nested in, and writing the times in the
+ * folded stacks format, e.g. for flamegraph.pl: a line per stack, "CLASS_DECLERATION;SUBROUTINE_DEC;... nanos".
+ * The time of a stack is its self time: the time spent in its innermost rule, excluding the rules nested in it.
+ * The rules are timed through the parser events, at their exact boundaries, so even rules too small for a sampling
+ * profiler, or inlined by the JIT, are accounted for.
+ * The stacks are kept in a tree, stored in arrays like the ParseTree, so an event costs a clock read and a scan of the
+ * children of the current stack, and the memory used is bounded by the number of distinct stacks.
+ */
+public class RuleProfiler implements ParserListener {
+
+    private static final int ROOT = 0;
+    private static final int NO_NODE = -1;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int INITIAL_DEPTH = 16;
+
+    private final LongSupplier clock;
+
+    /* The tree of stacks; the root stands for the empty stack. */
+    private StatementType[] rules;
+    private int[] parents;
+    private int[] firstChildren;
+    private int[] nextSiblings;
+    private long[] selfNanos;
+    private int nodeCount;
+
+    /* The rules entered and not exited yet, innermost last. */
+    private int[] openNodes;
+    private long[] startTimes;
+    private long[] childNanos;
+    private int depth;
+
+    /**
+     * Constructs new profiler, with no time recorded.
+     */
+    public RuleProfiler() {
+        this(System::nanoTime);
+    }
+
+    /**
+     * Constructs new profiler reading the time from the given clock.
+     * @param clock the clock, in nanoseconds.
+     */
+    RuleProfiler(LongSupplier clock) {
+        this.clock = clock;
+        this.rules = new StatementType[INITIAL_CAPACITY];
+        this.parents = new int[INITIAL_CAPACITY];
+        this.firstChildren = new int[INITIAL_CAPACITY];
+        this.nextSiblings = new int[INITIAL_CAPACITY];
+        this.selfNanos = new long[INITIAL_CAPACITY];
+        this.nodeCount = 0;
+        addNode(null, NO_NODE);
+        this.openNodes = new int[INITIAL_DEPTH];
+        this.startTimes = new long[INITIAL_DEPTH];
+        this.childNanos = new long[INITIAL_DEPTH];
+        this.depth = 0;
+    }
+
+    @Override
+    public void enterRule(StatementType rule) {
+        int parent = (depth == 0) ? ROOT : openNodes[depth - 1];
+        int node = child(parent, rule);
+        if (depth == openNodes.length) {
+            openNodes = Arrays.copyOf(openNodes, depth * 2);
+            startTimes = Arrays.copyOf(startTimes, depth * 2);
+            childNanos = Arrays.copyOf(childNanos, depth * 2);
+        }
+        openNodes[depth] = node;
+        childNanos[depth] = 0;
+        startTimes[depth] = clock.getAsLong();
+        depth++;
+    }
+
+    @Override
+    public void exitRule(StatementType rule) {
+        long now = clock.getAsLong();
+        if (depth == 0) {
+            return;
+        }
+        depth--;
+        long elapsed = now - startTimes[depth];
+        selfNanos[openNodes[depth]] += elapsed - childNanos[depth];
+        if (depth > 0) {
+            childNanos[depth - 1] += elapsed;
+        }
+    }
+
+    /**
+     * Add the times recorded by another profiler to the times of this one, e.g. to profile a whole corpus with a
+     * profiler per file.
+     * @param other the profiler to add the times of.
+     */
+    public void merge(RuleProfiler other) {
+        // A node is always added after its parent, so the parent of a node is mapped before the node itself.
+        int[] mapped = new int[other.nodeCount];
+        mapped[ROOT] = ROOT;
+        for (int node = ROOT + 1; node < other.nodeCount; node++) {
+            mapped[node] = child(mapped[other.parents[node]], other.rules[node]);
+            selfNanos[mapped[node]] += other.selfNanos[node];
+        }
+    }
+
+    /**
+     * Get the self time of a stack.
+     * @param stack the rules of the stack, outermost first.
+     * @return the self time of the stack in nanoseconds, or 0 if it wasn't recorded.
+     */
+    public long getSelfNanos(StatementType... stack) {
+        int node = ROOT;
+        for (StatementType rule : stack) {
+            node = findChild(node, rule);
+            if (node == NO_NODE) {
+                return 0;
+            }
+        }
+        return selfNanos[node];
+    }
+
+    /**
+     * Write every stack with a self time in the folded stacks format, a line per stack, in the order the stacks were
+     * first entered.
+     * @param writer the writer to write to.
+     * @throws IOException if the writer fails.
+     */
+    public void writeFolded(Writer writer) throws IOException {
+        String[] stacks = new String[nodeCount];
+        stacks[ROOT] = "";
+        for (int node = ROOT + 1; node < nodeCount; node++) {
+            String parentStack = stacks[parents[node]];
+            stacks[node] = parentStack.isEmpty() ? rules[node].name() : parentStack + ';' + rules[node].name();
+            if (selfNanos[node] > 0) {
+                writer.write(stacks[node]);
+                writer.write(' ');
+                writer.write(Long.toString(selfNanos[node]));
+                writer.write('\n');
+            }
+        }
+    }
+
+    /* Get the child of a node for the given rule, adding it if it's missing. */
+    private int child(int parent, StatementType rule) {
+        int node = findChild(parent, rule);
+        return (node == NO_NODE) ? addNode(rule, parent) : node;
+    }
+
+    /* Find the child of a node for the given rule. */
+    private int findChild(int parent, StatementType rule) {
+        for (int node = firstChildren[parent]; node != NO_NODE; node = nextSiblings[node]) {
+            if (rules[node] == rule) {
+                return node;
+            }
+        }
+        return NO_NODE;
+    }
+
+    /* Add a node for the given rule as the first child of the given parent. */
+    private int addNode(StatementType rule, int parent) {
+        if (nodeCount == rules.length) {
+            int capacity = nodeCount * 2;
+            rules = Arrays.copyOf(rules, capacity);
+            parents = Arrays.copyOf(parents, capacity);
+            firstChildren = Arrays.copyOf(firstChildren, capacity);
+            nextSiblings = Arrays.copyOf(nextSiblings, capacity);
+            selfNanos = Arrays.copyOf(selfNanos, capacity);
+        }
+        int node = nodeCount++;
+        rules[node] = rule;
+        parents[node] = parent;
+        firstChildren[node] = NO_NODE;
+        selfNanos[node] = 0;
+        if (parent == NO_NODE) {
+            nextSiblings[node] = NO_NODE;
+        } else {
+            nextSiblings[node] = firstChildren[parent];
+            firstChildren[parent] = node;
+        }
+        return node;
+    }
+}
@@ -0,0 +1,71 @@
+package main.Interpreter;
+
+import main.Lexer.TokenBuffer;
+import main.Lexer.Tokenizer;
+import main.Scope.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+
+import static main.Corpus.Fixtures.COUNTER;
+import static main.Interpreter.StatementType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class RuleProfilerTest {
+
+    private long time;
+
+    @BeforeEach
+    void resetClock() {
+        time = 0;
+    }
+
+    @Test
+    void testSelfTimesAddUpToTotal() throws IOException {
+        RuleProfiler profiler = new RuleProfiler(() -> ++time);
+        profile(profiler);
+
+        long total = 0;
+        for (String line : folded(profiler).split("\n")) {
+            assertTrue(line.startsWith("CLASS_DECLERATION"));
+            total += Long.parseLong(line.substring(line.lastIndexOf(' ') + 1));
+        }
+        // Every clock read is a rule boundary; the class spans from the first read to the last one.
+        assertEquals(time - 1, total);
+        assertTrue(profiler.getSelfNanos(CLASS_DECLERATION, SUBROUTINE_DEC, SUBROUTINE_BODY, STATEMENTS,
+                IF_STATEMENT, STATEMENTS, DO_STATEMENT) > 0);
+        assertEquals(0, profiler.getSelfNanos(CLASS_DECLERATION, WHILE_STATEMENT));
+    }
+
+    @Test
+    void testMerge() throws IOException {
+        RuleProfiler first = new RuleProfiler(() -> ++time);
+        profile(first);
+        RuleProfiler second = new RuleProfiler(() -> ++time);
+        profile(second);
+        RuleProfiler merged = new RuleProfiler();
+        merged.merge(first);
+        merged.merge(second);
+
+        long letTime = first.getSelfNanos(CLASS_DECLERATION, SUBROUTINE_DEC, SUBROUTINE_BODY, STATEMENTS,
+                LET_STATEMENT);
+        assertEquals(folded(first), folded(second));
+        assertEquals(2 * letTime, merged.getSelfNanos(CLASS_DECLERATION, SUBROUTINE_DEC, SUBROUTINE_BODY, STATEMENTS,
+                LET_STATEMENT));
+    }
+
+    private void profile(RuleProfiler profiler) {
+        TokenBuffer tokens = Tokenizer.tokenize(COUNTER);
+        Scope scope = new Scope();
+        new Parser(tokens, scope).parseClassDeclarations();
+        Parser parser = new Parser(tokens, scope);
+        parser.addListener(profiler);
+        parser.parseClass();
+    }
+
+    private static String folded(RuleProfiler profiler) throws IOException {
+        StringWriter writer = new StringWriter();
+        profiler.writeFolded(writer);
+        return writer.toString();
+    }
+}
@@ -1,52 +1,22 @@
 package main.Interpreter;
 
-import java.util.*;
 import main.Lexer.TokenType;
 import main.Scope.*;
-import static main.Interpreter.StatementType.RETURN;
 import static main.Lexer.TokenType.*;
-import static main.Scope.VariableSymbol.Attribute;
-import static main.Interpreter.StatementType.*;
-import static main.Interpreter.StatementType.*;
 
 /**
  * Perform semantic verification tasks relative to a specific scope.
- * Holds various tables used to determine valid token types or statements accepted by the sJava language specification.
+ * Holds the tables used to determine valid token types accepted by the Jack language specification.
  * Should be used when non-syntactic verification needs to be performed.
  */
 class SemanticAnalyzer {
 
-    /* Define which token types can be assigned to a variable. */
-    private static final Map<TokenType, TokenType[]> assignmentMap = new HashMap<>();
-    static{
-        assignmentMap.put(INT, new TokenType[] {INT, ID});
-        assignmentMap.put(BOOLEAN, new TokenType[] {INT, TRUE, FALSE, ID});
-        assignmentMap.put(STRING_CONSTANT, new TokenType[] {STRING_CONSTANT, ID});
-    }
-
-    /* Define which token types are covariant with each other. */
-    private static final Map<TokenType, TokenType[]> covariantTypeMap = new HashMap<>();
-    static{
-        covariantTypeMap.put(INT, new TokenType[] {INT});
-        covariantTypeMap.put(DOUBLE, new TokenType[] {INT, DOUBLE});
-        covariantTypeMap.put(BOOLEAN, new TokenType[] {INT, DOUBLE, BOOLEAN});
-        covariantTypeMap.put(STRING, new TokenType[] {STRING});
-        covariantTypeMap.put(CHAR, new TokenType[] {CHAR});
-    }
-
-    /* Define which are the valid statement types allowed inside a method block. */
-    private static final StatementType[] validMethodStatements =
-            new StatementType[] {VARIABLE_DECLARATION,
-                    CONDITIONAL, ASSIGNMENT, RETURN, METHOD_CALLING, CLOSE_SCOPE};
-
-    /* Define which are the valid statement types allowed in the global scope. */
-    private static final StatementType[] validGlobalStatements =
-            new StatementType[] {METHOD_DECLARATION, VARIABLE_DECLARATION, ASSIGNMENT};
-
-    /* Define variable types allowed in an sJavac program. */
-    static final TokenType[] variableTypes = new TokenType[] {INT, DOUBLE, BOOLEAN, CHAR, STRING};
+    /* Define variable types allowed in a Jack program; an identifier stands for a class name. */
+    static final TokenType[] variableTypes = new TokenType[] {INT, CHAR, BOOLEAN, ID};
 
     private Scope scope;
+    private long lookups;
+    private int maxScopeDepth;
 
     /**
      * Constructs new semantic analyzer in relation to given scope.
@@ -54,71 +24,31 @@ class SemanticAnalyzer {
      */
     SemanticAnalyzer(Scope scope) {
         this.scope = scope;
+        this.lookups = 0;
+        this.maxScopeDepth = scope.getDepth();
     }
 
     /**
-     * Validate the correct usage of a variable in the program.
-     * Assert that variable is available in the current scope and initialized.
-     * More over, assert that the variable is used correctly in relation to the valid type given
-     * (e.g. String variable cannot be assign to an int).
-     * @param validType the basis for the type comparison.
-     * @param testedVariableName name of the variable to be tested.
-     * @throws SemanticAnalyzerException if the verification failed, holds an informative message.
-     */
-    void verifyVariableUsage(TokenType validType, String testedVariableName) throws SemanticAnalyzerException{
-        VariableSymbol varSymbol = getVariableIfDeclared(testedVariableName);
-        requireInitialized(varSymbol);
-        for (TokenType expectedType : covariantTypeMap.get(validType)) {
-            if (varSymbol.getType() == expectedType) { return; }
-        }
-        throw new ContravariantVariableTypeException(validType, varSymbol.getType());
-    }
-
-    /* Assert that given variable symbol is marked as initialized. */
-    private static void requireInitialized(VariableSymbol varSymbol) throws UninitializedVariableUsageException {
-        if (!varSymbol.isActivated(Attribute.INITIALIZED)) {
-            throw new UninitializedVariableUsageException();
-        }
-    }
-
-    /**
-     * Validate the assignment of a the variable given by the name assignedVariableName to assignTo variable.
-     * In particular, verify that assignTo isn't marked as final, and check for correct variable usage.
-     * @param assignTo VariableSymbol object represent the assignee.
-     * @param assignedVariableName VariableSymbol object represent the object to be assigned.
-     * @throws SemanticAnalyzerException if the verification failed, holds an informative message.
+     * Rebind the semantic analyzer to another scope.
+     * @param scope scope being analyzed.
      */
-    void verifyAssignment(VariableSymbol assignTo, String assignedVariableName) throws SemanticAnalyzerException {
-        requireNonFinal(assignTo);
-        verifyVariableUsage(assignTo.getType(), assignedVariableName);
+    void setScope(Scope scope) {
+        this.scope = scope;
+        this.maxScopeDepth = Math.max(maxScopeDepth, scope.getDepth());
     }
 
     /**
-     * Verify that the given statement type is a valid statement inside a method block.
-     * @param statement statement type to check.
-     * @throws UnexpectedMethodStatementException if given statement is invalid.
+     * @return the number of symbols looked up so far, variables and methods alike.
      */
-    static void verifyMethodStatement(StatementType statement) throws UnexpectedMethodStatementException {
-        for (StatementType statementType : validMethodStatements) {
-            if (statementType == statement) {
-                return;
-            }
-        }
-        throw new UnexpectedMethodStatementException(statement);
+    long getLookupCount() {
+        return lookups;
     }
 
     /**
-     * Verify that the given statement type is a valid statement in relation to the global scope.
-     * @param statement statement type to check.
-     * @throws UnexpectedGlobalStatementException if given statement is invalid.
+     * @return the depth of the deepest scope analyzed so far.
      */
-    static void verifyGlobalStatement(StatementType statement) throws UnexpectedGlobalStatementException {
-        for (StatementType statementType : validGlobalStatements) {
-            if (statementType == statement) {
-                return;
-            }
-        }
-        throw new UnexpectedGlobalStatementException(statement);
+    int getMaxScopeDepth() {
+        return maxScopeDepth;
     }
 
     /**
@@ -129,6 +59,7 @@ class SemanticAnalyzer {
      * scope enclosing it.
      */
     VariableSymbol getVariableIfDeclared(String varName) throws UndeclaredVariableUsageException {
+        lookups++;
         try {
             return this.scope.lookupVariable(varName);
         } catch (NoSuchSymbolException e) {
@@ -136,22 +67,23 @@ class SemanticAnalyzer {
         }
     }
 
-    /** This method is in charge of validating that currTokenType matches one of the correct token types
-     * allowed to be assigned to varType. */
-    TokenType verifyAssignmentTokenType(TokenType varType, TokenType currTokenType)
-            throws InvalidTokenForAssignment {
-        for (TokenType expectedTokenType : assignmentMap.get(varType)) {
-            if (currTokenType == expectedTokenType) {
-                return expectedTokenType;
-            }
+    /**
+     * Verify that a call to the method whose name is methodName matches the method's declaration.
+     * @param methodName method identifier.
+     * @param argumentsCount number of arguments given in the call.
+     * @throws UndeclaredMethodUsageException if no method with the name methodName was declared.
+     * @throws InvalidMethodCallException if the method expects another number of arguments.
+     */
+    void verifyMethodCall(String methodName, int argumentsCount) throws SemanticAnalyzerException {
+        MethodSymbol methodSymbol;
+        lookups++;
+        try {
+            methodSymbol = this.scope.lookupMethod(methodName);
+        } catch (NoSuchSymbolException e) {
+            throw new UndeclaredMethodUsageException(methodName);
         }
-        throw new InvalidTokenForAssignment(currTokenType);
-    }
-
-    /** Assert that given variable symbol does not marked as final. */
-    static void requireNonFinal(VariableSymbol varSymbol) throws CannotChangeFinalVariableException {
-        if (varSymbol.isActivated(Attribute.FINAL)) {
-            throw new CannotChangeFinalVariableException();
+        if (methodSymbol.getParameterCount() != argumentsCount) {
+            throw new InvalidMethodCallException(methodName, methodSymbol.getParameterCount());
         }
     }
 }
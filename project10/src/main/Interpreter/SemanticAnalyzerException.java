@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class SemanticAnalyzerException extends ParserException {
+    SemanticAnalyzerException(ErrorCode code, String message) {
+        super(code, message);
+    }
+}
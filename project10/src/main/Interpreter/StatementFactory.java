@@ -1,6 +1,5 @@
 package main.Interpreter;
 
-import main.Lexer.Token;
 import main.Lexer.TokenType;
 
 /**
@@ -9,38 +8,29 @@ import main.Lexer.TokenType;
 
 class StatementFactory {
     /**
-     * This static function receives the first 2 tokens that represents the line currently parsed, and
-     * returns the StatementType of the
-     * @param firstToken The first token of the line
-     * @param secondToken The second token of the line
-     * @return The Statement that matches the line
-     * statement types.
+     * This static function receives the type of the first token of the statement currently parsed, and
+     * returns the StatementType of the statement.
+     * @param firstToken The type of the first token of the statement, may be null when there are no more tokens
+     * @return The Statement that matches the token
+     * @throws UnknownStatementException if no statement starts with the given token type.
      */
-    static StatementType getStatement(Token firstToken, Token secondToken) {
-        switch (firstToken.getType()) {
-            case INT:
-            case BOOLEAN:
-            case CHAR:
-            case ID: //todo: not sure, object type class
-                return StatementType.VARIABLE_DECLARATION;
-            case RETURN:
-                return StatementType.RETURN;
-            case WHILE:
+    static StatementType getStatement(TokenType firstToken) throws UnknownStatementException {
+        if (firstToken == null) {
+            throw new UnknownStatementException();
+        }
+        switch (firstToken) {
+            case LET:
+                return StatementType.LET_STATEMENT;
             case IF:
-                return StatementType.CONDITIONAL;
-            case VOID:
-                return StatementType.METHOD_DECLARATION;
-            case ID:
-                if (secondToken != null) {
-                    if (secondToken.getType() == TokenType.EQUALS) {
-                        return StatementType.ASSIGNMENT;
-                    } else if (secondToken.getType() == TokenType.L_PAREN) {
-                        return StatementType.METHOD_CALLING;
-                    }
-                }
-            case R_BRACE:
-                return StatementType.CLOSE_SCOPE;
+                return StatementType.IF_STATEMENT;
+            case WHILE:
+                return StatementType.WHILE_STATEMENT;
+            case DO:
+                return StatementType.DO_STATEMENT;
+            case RETURN:
+                return StatementType.RETURN_STATEMENT;
+            default:
+                throw new UnknownStatementException();
         }
-        throw new UnknownStatementException();
     }
 }
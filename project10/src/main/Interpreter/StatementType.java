@@ -1,16 +1,17 @@
 package main.Interpreter;
 
 /**
- * This enum holds all the statement types allowed in sJava program.
+ * This enum holds all the statement types allowed in Jack program.
+ * Grammar rules written as elements of the parse tree XML carry their tag name.
  */
 public enum StatementType {
-    CLASS_DECLERATION,
-    CLASS_VAR_DEC,
+    CLASS_DECLERATION("class"),
+    CLASS_VAR_DEC("classVarDec"),
     VAR_TYPE,
-    SUBROUTINE_DEC,
-    PARAMETER_LIST,
-    SUBROUTINE_BODY,
-    VAR_DEC,
+    SUBROUTINE_DEC("subroutineDec"),
+    PARAMETER_LIST("parameterList"),
+    SUBROUTINE_BODY("subroutineBody"),
+    VAR_DEC("varDec"),
 
     // todo: ??? needs?
     CLASS_NAME,
@@ -18,20 +19,45 @@ public enum StatementType {
     VAR_NAME,
 
     STATEMENT,
-    LET_STATEMENT, // assignment
-    IF_STATEMENT,
-    WHILE_STATEMENT,
-    DO_STATEMENT, // method calling
-    RETURN_STATEMENT,
-
-    EXPRESSION,
-    TERM,
+    STATEMENTS("statements"),
+    LET_STATEMENT("letStatement"), // assignment
+    IF_STATEMENT("ifStatement"),
+    WHILE_STATEMENT("whileStatement"),
+    DO_STATEMENT("doStatement"), // method calling
+    RETURN_STATEMENT("returnStatement"),
+
+    EXPRESSION("expression"),
+    TERM("term"),
     SUBROUTINE_CALL,
-    EXPRESSION_LIST,
+    EXPRESSION_LIST("expressionList"),
     OP,
     UNARY_OP,
     KEYWORD_CONSTANT,
 
     OPEN_SCOPE,
-    CLOSE_SCOPE
+    CLOSE_SCOPE;
+
+    private String xmlTag;
+
+    /**
+     * StatementType which isn't written as an element of the parse tree.
+     */
+    StatementType() {
+        this.xmlTag = null;
+    }
+
+    /**
+     * StatementType written as an element of the parse tree.
+     * @param xmlTag the tag name of the element.
+     */
+    StatementType(String xmlTag) {
+        this.xmlTag = xmlTag;
+    }
+
+    /**
+     * @return the tag name of the element of the parse tree, or null if the statement type has no element.
+     */
+    public String getXmlTag() {
+        return xmlTag;
+    }
 }
@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class UndeclaredMethodUsageException extends SemanticAnalyzerException {
+    UndeclaredMethodUsageException(String methodName) {
+        super(ErrorCode.UNDECLARED_METHOD, "Subroutine " + methodName + " is not declared.");
+    }
+}
@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class UndeclaredVariableUsageException extends SemanticAnalyzerException {
+    UndeclaredVariableUsageException(String varName) {
+        super(ErrorCode.UNDECLARED_VARIABLE, "Variable " + varName + " is not declared.");
+    }
+}
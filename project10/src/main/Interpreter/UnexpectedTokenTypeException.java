@@ -0,0 +1,10 @@
+package main.Interpreter;
+
+import main.Lexer.TokenType;
+
+public class UnexpectedTokenTypeException extends ParserException {
+    UnexpectedTokenTypeException(TokenType expected) {
+        super(ErrorCode.UNEXPECTED_TOKEN,
+                (expected == null) ? "Unexpected token found." : "Expected token of type " + expected + ".");
+    }
+}
@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class UnknownStatementException extends ParserException {
+    UnknownStatementException() {
+        super(ErrorCode.UNKNOWN_STATEMENT, "Unknown statement.");
+    }
+}
@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class UnknownTokenException extends ParserException {
+    UnknownTokenException(CharSequence text) {
+        super(ErrorCode.UNKNOWN_TOKEN, (text.length() > 1) ? "Unclosed block comment." : "Unknown token " + text + ".");
+    }
+}
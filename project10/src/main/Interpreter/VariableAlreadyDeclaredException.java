@@ -0,0 +1,7 @@
+package main.Interpreter;
+
+public class VariableAlreadyDeclaredException extends SemanticAnalyzerException {
+    VariableAlreadyDeclaredException(String varName) {
+        super(ErrorCode.VARIABLE_ALREADY_DECLARED, "Variable " + varName + " is already declared.");
+    }
+}
@@ -0,0 +1,265 @@
+package main.Interpreter;
+
+import main.Lexer.*;
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+/**
+ * Streaming writer of the token XML (xxxT.xml) and of the parse tree XML (xxx.xml) of a Jack file.
+ * Elements are written as they are reported, nothing is kept in memory but the output buffer: no DOM nor tree is
+ * built. Tag names are encoded once, and token text is escaped and encoded straight from the source into the buffer,
+ * without creating intermediate Strings.
+ * Output goes through a large byte buffer, pooled per thread, which is written to the channel whenever it fills up.
+ * As a parser listener, it writes the parse tree of the rules reported by the parser.
+ */
+public class XmlWriter implements ParserListener, Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final int MAX_ENCODED_CHAR = 4;
+    private static final String INDENT = "  ";
+    private static final byte[] TOKENS_OPEN_TAG = "<tokens>\n".getBytes(StandardCharsets.US_ASCII);
+    private static final byte[] TOKENS_CLOSE_TAG = "</tokens>\n".getBytes(StandardCharsets.US_ASCII);
+
+    /* Tags of the tokens and of the parse tree elements, encoded once and indexed by type ordinal. */
+    private static final byte[][] tokenOpenTags = new byte[TokenType.values().length][];
+    private static final byte[][] tokenCloseTags = new byte[TokenType.values().length][];
+    private static final byte[][] ruleOpenTags = new byte[StatementType.values().length][];
+    private static final byte[][] ruleCloseTags = new byte[StatementType.values().length][];
+
+    /* Output buffers not in use, one per thread, so files written one after the other reuse the same buffer. */
+    private static final ThreadLocal<ByteBuffer> bufferPool = new ThreadLocal<>();
+
+    static {
+        for (TokenType type : TokenType.values()) {
+            tokenOpenTags[type.ordinal()] = encode("<" + type.getXmlCategory() + "> ");
+            tokenCloseTags[type.ordinal()] = encode(" </" + type.getXmlCategory() + ">\n");
+        }
+        for (StatementType rule : StatementType.values()) {
+            if (rule.getXmlTag() != null) {
+                ruleOpenTags[rule.ordinal()] = encode("<" + rule.getXmlTag() + ">\n");
+                ruleCloseTags[rule.ordinal()] = encode("</" + rule.getXmlTag() + ">\n");
+            }
+        }
+    }
+
+    private WritableByteChannel channel;
+    private ByteBuffer buffer;
+    private int depth;
+
+    /**
+     * Constructs new writer to the given channel. The channel is closed with the writer.
+     * @param channel channel the XML is written to.
+     */
+    public XmlWriter(WritableByteChannel channel) {
+        this.channel = channel;
+        this.buffer = takeBuffer();
+        this.depth = 0;
+    }
+
+    /**
+     * Create a writer to the file at the given path, replacing any existing file.
+     * @param path path of the XML file.
+     * @return the new writer.
+     * @throws IOException if the file couldn't be opened.
+     */
+    public static XmlWriter create(Path path) throws IOException {
+        return new XmlWriter(FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Write the token XML document of the given tokens: every token inside a single tokens element.
+     * @param tokens the tokens of a file.
+     * @throws IOException if writing to the channel failed.
+     */
+    public void writeTokens(TokenBuffer tokens) throws IOException {
+        try {
+            put(TOKENS_OPEN_TAG);
+            for (int i = 0; i < tokens.size(); i++) {
+                token(tokens, i);
+            }
+            put(TOKENS_CLOSE_TAG);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    /**
+     * Write the opening tag of a parse tree element, if the rule has one.
+     * @param rule the grammar rule of the element.
+     * @throws UncheckedIOException if writing to the channel failed.
+     */
+    @Override
+    public void enterRule(StatementType rule) {
+        byte[] tag = ruleOpenTags[rule.ordinal()];
+        if (tag != null) {
+            indent();
+            put(tag);
+            depth++;
+        }
+    }
+
+    /**
+     * Write the closing tag of a parse tree element, if the rule has one.
+     * @param rule the grammar rule of the element.
+     * @throws UncheckedIOException if writing to the channel failed.
+     */
+    @Override
+    public void exitRule(StatementType rule) {
+        byte[] tag = ruleCloseTags[rule.ordinal()];
+        if (tag != null) {
+            depth--;
+            indent();
+            put(tag);
+        }
+    }
+
+    /**
+     * Write a single token, tagged with its lexical category. String constants are written without their quotes.
+     * @param tokens the tokens of the file.
+     * @param index index of the token.
+     * @throws UncheckedIOException if writing to the channel failed.
+     */
+    @Override
+    public void token(TokenBuffer tokens, int index) {
+        TokenType type = tokens.type(index);
+        int start = tokens.start(index);
+        int end = start + tokens.length(index);
+        if (type == TokenType.STRING_CONSTANT) {
+            start++;
+            end--;
+        }
+        indent();
+        put(tokenOpenTags[type.ordinal()]);
+        putEscaped(tokens.getSource(), start, end);
+        put(tokenCloseTags[type.ordinal()]);
+    }
+
+    /**
+     * Write everything buffered so far to the channel.
+     * @throws IOException if writing to the channel failed.
+     */
+    public void flush() throws IOException {
+        buffer.flip();
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+        buffer.clear();
+    }
+
+    /**
+     * Flush the buffer and close the channel. The buffer is returned to the pool.
+     * @throws IOException if writing to or closing the channel failed.
+     */
+    @Override
+    public void close() throws IOException {
+        if (buffer == null) {
+            return;
+        }
+        try {
+            flush();
+        } finally {
+            buffer.clear();
+            bufferPool.set(buffer);
+            buffer = null;
+            channel.close();
+        }
+    }
+
+    /* Indent a line according to the depth of the current element. */
+    private void indent() {
+        for (int i = 0; i < depth; i++) {
+            for (int j = 0; j < INDENT.length(); j++) {
+                putByte(INDENT.charAt(j));
+            }
+        }
+    }
+
+    /* Put the chars of the source between start and end, escaping the XML special chars and encoding as UTF-8. */
+    private void putEscaped(CharSequence source, int start, int end) {
+        for (int i = start; i < end; i++) {
+            char c = source.charAt(i);
+            switch (c) {
+                case '<': putAscii("&lt;"); break;
+                case '>': putAscii("&gt;"); break;
+                case '&': putAscii("&amp;"); break;
+                case '"': putAscii("&quot;"); break;
+                default:
+                    if (Character.isHighSurrogate(c) && i + 1 < end && Character.isLowSurrogate(source.charAt(i + 1))) {
+                        putCodePoint(Character.toCodePoint(c, source.charAt(++i)));
+                    } else {
+                        putCodePoint(c);
+                    }
+            }
+        }
+    }
+
+    /* Put a single code point, encoded as UTF-8. */
+    private void putCodePoint(int codePoint) {
+        ensureRemaining(MAX_ENCODED_CHAR);
+        if (codePoint < 0x80) {
+            buffer.put((byte) codePoint);
+        } else if (codePoint < 0x800) {
+            buffer.put((byte) (0xC0 | (codePoint >> 6)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else if (codePoint < 0x10000) {
+            buffer.put((byte) (0xE0 | (codePoint >> 12)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        } else {
+            buffer.put((byte) (0xF0 | (codePoint >> 18)));
+            buffer.put((byte) (0x80 | ((codePoint >> 12) & 0x3F)));
+            buffer.put((byte) (0x80 | ((codePoint >> 6) & 0x3F)));
+            buffer.put((byte) (0x80 | (codePoint & 0x3F)));
+        }
+    }
+
+    /* Put the chars of an ASCII constant. */
+    private void putAscii(String ascii) {
+        for (int i = 0; i < ascii.length(); i++) {
+            putByte(ascii.charAt(i));
+        }
+    }
+
+    /* Put a single ASCII char. */
+    private void putByte(char c) {
+        ensureRemaining(1);
+        buffer.put((byte) c);
+    }
+
+    /* Put pre-encoded bytes. */
+    private void put(byte[] bytes) {
+        ensureRemaining(bytes.length);
+        buffer.put(bytes);
+    }
+
+    /* Make room in the buffer for the given number of bytes, flushing it if needed. */
+    private void ensureRemaining(int count) {
+        if (buffer.remaining() < count) {
+            try {
+                flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+    }
+
+    /* Take a buffer from the pool of the current thread, or allocate one if the pool is empty. */
+    private static ByteBuffer takeBuffer() {
+        ByteBuffer pooled = bufferPool.get();
+        if (pooled == null) {
+            return ByteBuffer.allocateDirect(BUFFER_SIZE);
+        }
+        bufferPool.remove();
+        return pooled;
+    }
+
+    /* Encode a tag once. */
+    private static byte[] encode(String tag) {
+        return tag.getBytes(StandardCharsets.US_ASCII);
+    }
+}
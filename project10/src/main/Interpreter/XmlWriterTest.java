@@ -0,0 +1,102 @@
+package main.Interpreter;
+
+import main.Lexer.TokenBuffer;
+import main.Lexer.Tokenizer;
+import main.Scope.*;
+import org.junit.jupiter.api.*;
+
+import java.io.*;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+
+import static main.Lexer.TokenType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class XmlWriterTest {
+
+    @Test
+    void testTokensXml() throws IOException {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (XmlWriter writer = new XmlWriter(Channels.newChannel(output))) {
+            writer.writeTokens(Tokenizer.tokenize("if (x < 1) { let s = \"a&b > \u00e9\"; }"));
+        }
+        assertEquals(String.join("\n",
+                "<tokens>",
+                "<keyword> if </keyword>",
+                "<symbol> ( </symbol>",
+                "<identifier> x </identifier>",
+                "<symbol> &lt; </symbol>",
+                "<integerConstant> 1 </integerConstant>",
+                "<symbol> ) </symbol>",
+                "<symbol> { </symbol>",
+                "<keyword> let </keyword>",
+                "<identifier> s </identifier>",
+                "<symbol> = </symbol>",
+                "<stringConstant> a&amp;b &gt; \u00e9 </stringConstant>",
+                "<symbol> ; </symbol>",
+                "<symbol> } </symbol>",
+                "</tokens>",
+                ""), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testParseTreeXml() throws IOException {
+        Scope scope = new Scope();
+        scope.addVariable("a", new VariableSymbolBuilder(ID).build());
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (XmlWriter writer = new XmlWriter(Channels.newChannel(output))) {
+            Parser parser = new Parser(Tokenizer.tokenize("let a[1] = -a & f.g();"), scope);
+            parser.addListener(writer);
+            parser.parseStatement();
+        }
+        assertEquals(String.join("\n",
+                "<letStatement>",
+                "  <keyword> let </keyword>",
+                "  <identifier> a </identifier>",
+                "  <symbol> [ </symbol>",
+                "  <expression>",
+                "    <term>",
+                "      <integerConstant> 1 </integerConstant>",
+                "    </term>",
+                "  </expression>",
+                "  <symbol> ] </symbol>",
+                "  <symbol> = </symbol>",
+                "  <expression>",
+                "    <term>",
+                "      <symbol> - </symbol>",
+                "      <term>",
+                "        <identifier> a </identifier>",
+                "      </term>",
+                "    </term>",
+                "    <symbol> &amp; </symbol>",
+                "    <term>",
+                "      <identifier> f </identifier>",
+                "      <symbol> . </symbol>",
+                "      <identifier> g </identifier>",
+                "      <symbol> ( </symbol>",
+                "      <expressionList>",
+                "      </expressionList>",
+                "      <symbol> ) </symbol>",
+                "    </term>",
+                "  </expression>",
+                "  <symbol> ; </symbol>",
+                "</letStatement>",
+                ""), output.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void testLargeOutputIsFlushed() throws IOException {
+        StringBuilder source = new StringBuilder();
+        for (int i = 0; i < 20000; i++) {
+            source.append("let x = x + 1; ");
+        }
+        TokenBuffer tokens = Tokenizer.tokenize(source);
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        try (XmlWriter writer = new XmlWriter(Channels.newChannel(output))) {
+            writer.writeTokens(tokens);
+        }
+        String xml = output.toString(StandardCharsets.UTF_8);
+        assertTrue(xml.length() > (1 << 16));
+        assertTrue(xml.endsWith("<symbol> ; </symbol>\n</tokens>\n"));
+    }
+}
@@ -0,0 +1,72 @@
+package main.Lexer;
+
+/**
+ * This class is a read-only view over a region of a source, used to expose token values without copying them.
+ * A String is only created when toString is called.
+ */
+public class SourceSlice implements CharSequence {
+
+    private CharSequence source;
+    private int start;
+    private int end;
+
+    /**
+     * Constructs new view over the chars of source between start (inclusive) and end (exclusive).
+     * @param source the viewed source.
+     * @param start offset of the first char of the view.
+     * @param end offset after the last char of the view.
+     */
+    SourceSlice(CharSequence source, int start, int end) {
+        this.source = source;
+        this.start = start;
+        this.end = end;
+    }
+
+    @Override
+    public int length() {
+        return end - start;
+    }
+
+    @Override
+    public char charAt(int index) {
+        if (index < 0 || index >= length()) {
+            throw new IndexOutOfBoundsException(index);
+        }
+        return source.charAt(start + index);
+    }
+
+    @Override
+    public CharSequence subSequence(int start, int end) {
+        if (start < 0 || end > length() || start > end) {
+            throw new IndexOutOfBoundsException();
+        }
+        return new SourceSlice(source, this.start + start, this.start + end);
+    }
+
+    /**
+     * Determine whether the view holds exactly the given chars, without creating a String.
+     * @param other chars to compare to.
+     * @return true if and only if the view and the given chars are equal.
+     */
+    public boolean contentEquals(CharSequence other) {
+        return contentEquals(source, start, end - start, other);
+    }
+
+    /* Compare a region of the source to the given chars. */
+    static boolean contentEquals(CharSequence source, int start, int length, CharSequence other) {
+        if (other.length() != length) {
+            return false;
+        }
+        for (int i = 0; i < length; i++) {
+            if (source.charAt(start + i) != other.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return source.subSequence(start, end).toString();
+    }
+}
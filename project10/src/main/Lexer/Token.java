@@ -5,25 +5,37 @@ package main.Lexer;
  */
 public class Token {
 
+    private CharSequence text;
     private String value;
+    private int intValue;
     private TokenType type;
+    private int line;
+    private int column;
 
     /**
      * Constructs new Token object with given type.
      * @param type The type of the token.
+     * @param line The line the token starts at.
+     * @param column The column the token starts at.
      */
-    Token(TokenType type) {
+    Token(TokenType type, int line, int column) {
         this.type = type;
+        this.line = line;
+        this.column = column;
     }
 
     /**
      * Constructs new Token object with type and value.
      * @param type The type of the token.
-     * @param value The value of the token.
+     * @param text View over the value of the token inside the source.
+     * @param intValue The decoded value of an integer constant.
+     * @param line The line the token starts at.
+     * @param column The column the token starts at.
      */
-    Token(TokenType type, String value) {
-        this.type = type;
-        this.value = value;
+    Token(TokenType type, CharSequence text, int intValue, int line, int column) {
+        this(type, line, column);
+        this.text = text;
+        this.intValue = intValue;
     }
 
     /**
@@ -34,9 +46,40 @@ public class Token {
     }
 
     /**
-     * @return The value of the token.
+     * @return The value of the token. The String is created on the first call.
      */
     public String getValue() {
+        if (value == null && text != null) {
+            value = text.toString();
+        }
         return value;
     }
+
+    /**
+     * @return View over the value of the token inside the source, or null if the token has no value.
+     */
+    public CharSequence getText() {
+        return text;
+    }
+
+    /**
+     * @return The decoded value of an integer constant token.
+     */
+    public int getIntValue() {
+        return intValue;
+    }
+
+    /**
+     * @return The line (starting at 1) the token starts at.
+     */
+    public int getLine() {
+        return line;
+    }
+
+    /**
+     * @return The column (starting at 1) the token starts at.
+     */
+    public int getColumn() {
+        return column;
+    }
 }
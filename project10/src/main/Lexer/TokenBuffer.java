@@ -0,0 +1,213 @@
+package main.Lexer;
+
+import java.util.Arrays;
+
+/**
+ * This class stores the tokens of a source in packed parallel arrays (struct-of-arrays), instead of a Token object per
+ * token. For every token it holds the ordinal of its type, its start offset and length inside the source, and the line
+ * and column it starts at. Integer constants are also kept decoded as a primitive int.
+ * Token values are exposed as views into the source; a String is only created by value.
+ * Braces are matched while the tokens are added, so the matching brace of every brace is known in O(1).
+ * The buffer can be cleared and refilled, reusing its arrays.
+ */
+public class TokenBuffer {
+
+    private static final int INITIAL_CAPACITY = 64;
+    private static final int NO_MATCH = -1;
+    private static final TokenType[] tokenTypes = TokenType.values();
+
+    private CharSequence source;
+    private int[] types;
+    private int[] starts;
+    private int[] lengths;
+    private int[] lines;
+    private int[] columns;
+    private int[] intValues;
+    private int[] matchingBraces;
+    private int[] openBraces;
+    private int openBracesCount;
+    private int size;
+    private int lineCount;
+
+    /**
+     * Constructs new empty token buffer.
+     */
+    public TokenBuffer() {
+        this(INITIAL_CAPACITY);
+    }
+
+    /**
+     * Constructs new empty token buffer with the given initial capacity.
+     * @param capacity number of tokens the buffer can hold before growing.
+     */
+    public TokenBuffer(int capacity) {
+        capacity = Math.max(capacity, 1);
+        this.types = new int[capacity];
+        this.starts = new int[capacity];
+        this.lengths = new int[capacity];
+        this.lines = new int[capacity];
+        this.columns = new int[capacity];
+        this.intValues = new int[capacity];
+        this.matchingBraces = new int[capacity];
+        this.openBraces = new int[INITIAL_CAPACITY];
+        this.openBracesCount = 0;
+        this.size = 0;
+        this.lineCount = 0;
+    }
+
+    /* Set the number of lines of the source, once all its tokens are added. */
+    void setLineCount(int lineCount) {
+        this.lineCount = lineCount;
+    }
+
+    /**
+     * Remove all tokens, and bind the buffer to a new source.
+     * @param source the source the next tokens are taken from.
+     */
+    void reset(CharSequence source) {
+        this.source = source;
+        this.openBracesCount = 0;
+        this.size = 0;
+    }
+
+    /* Append a token to the buffer. */
+    void add(TokenType type, int start, int length, int line, int column, int intValue) {
+        if (size == types.length) {
+            grow();
+        }
+        types[size] = type.ordinal();
+        starts[size] = start;
+        lengths[size] = length;
+        lines[size] = line;
+        columns[size] = column;
+        intValues[size] = intValue;
+        matchingBraces[size] = NO_MATCH;
+        if (type == TokenType.L_BRACE) {
+            pushOpenBrace(size);
+        } else if (type == TokenType.R_BRACE && openBracesCount > 0) {
+            int openBrace = openBraces[--openBracesCount];
+            matchingBraces[openBrace] = size;
+            matchingBraces[size] = openBrace;
+        }
+        size++;
+    }
+
+    /* Push the index of an opening brace still waiting for its closing brace. */
+    private void pushOpenBrace(int index) {
+        if (openBracesCount == openBraces.length) {
+            openBraces = Arrays.copyOf(openBraces, openBracesCount * 2);
+        }
+        openBraces[openBracesCount++] = index;
+    }
+
+    /* Double the capacity of the buffer arrays. */
+    private void grow() {
+        int capacity = types.length * 2;
+        types = Arrays.copyOf(types, capacity);
+        starts = Arrays.copyOf(starts, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+        lines = Arrays.copyOf(lines, capacity);
+        columns = Arrays.copyOf(columns, capacity);
+        intValues = Arrays.copyOf(intValues, capacity);
+        matchingBraces = Arrays.copyOf(matchingBraces, capacity);
+    }
+
+    /**
+     * @return the number of tokens in the buffer.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return the number of lines of the source the tokens were taken from; a line terminator ending the source
+     * doesn't start another line.
+     */
+    public int getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * @return the source the tokens were taken from.
+     */
+    public CharSequence getSource() {
+        return source;
+    }
+
+    /**
+     * @param index index of the token.
+     * @return the type of the token.
+     */
+    public TokenType type(int index) {
+        return tokenTypes[types[index]];
+    }
+
+    /**
+     * @param index index of the token.
+     * @return the offset of the first char of the token inside the source.
+     */
+    public int start(int index) {
+        return starts[index];
+    }
+
+    /**
+     * @param index index of the token.
+     * @return the number of chars of the token.
+     */
+    public int length(int index) {
+        return lengths[index];
+    }
+
+    /**
+     * @param index index of the token.
+     * @return the line (starting at 1) the token starts at.
+     */
+    public int line(int index) {
+        return lines[index];
+    }
+
+    /**
+     * @param index index of the token.
+     * @return the column (starting at 1) the token starts at.
+     */
+    public int column(int index) {
+        return columns[index];
+    }
+
+    /**
+     * @param index index of the token.
+     * @return the decoded value of an integer constant token, 0 for any other token.
+     */
+    public int intValue(int index) {
+        return intValues[index];
+    }
+
+    /**
+     * @param index index of a brace token.
+     * @return the index of the matching brace, or -1 if the brace has no match (or the token isn't a brace).
+     */
+    public int matchingBrace(int index) {
+        return matchingBraces[index];
+    }
+
+    /**
+     * @param index index of the token.
+     * @return a view over the text of the token inside the source, no chars are copied.
+     */
+    public CharSequence text(int index) {
+        return new SourceSlice(source, starts[index], starts[index] + lengths[index]);
+    }
+
+    /**
+     * Create a String for the value of the token. Should only be used when a String is really needed, e.g. as a
+     * symbol table key.
+     * @param index index of the token.
+     * @return the value of the token, or null if the token type doesn't carry a value.
+     */
+    public String value(int index) {
+        if (!type(index).isTokenValueExpected()) {
+            return null;
+        }
+        return source.subSequence(starts[index], starts[index] + lengths[index]).toString();
+    }
+}
@@ -0,0 +1,115 @@
+package main.Lexer;
+
+/**
+ * This class walks over the tokens held in a TokenBuffer, without allocating any object per token.
+ * The cursor stands on a current token; it is positioned before the first token when created.
+ * A single cursor is shared by all the grammar rules of a parser, which look ahead through peek.
+ */
+public class TokenCursor {
+
+    /**
+     * The number of tokens a grammar rule may look ahead of the current token. Jack is LL(2), the second token is
+     * only needed to tell a variable, an array entry and a subroutine call apart.
+     */
+    public static final int MAX_LOOKAHEAD = 2;
+
+    private static final int BEFORE_FIRST = -1;
+
+    private TokenBuffer tokens;
+    private int index;
+
+    /**
+     * Constructs new cursor positioned before the first token of the given buffer.
+     * @param tokens the tokens to walk over.
+     */
+    public TokenCursor(TokenBuffer tokens) {
+        this.tokens = tokens;
+        this.index = BEFORE_FIRST;
+    }
+
+    /**
+     * Move the cursor to stand on the token at the given index.
+     * @param index index of the token, may be -1 to move before the first token.
+     */
+    public void moveTo(int index) {
+        this.index = index;
+    }
+
+    /**
+     * @return the index of the current token inside the buffer.
+     */
+    public int index() {
+        return index;
+    }
+
+    /**
+     * @return true if there is a token after the current one.
+     */
+    public boolean hasNext() {
+        return index + 1 < tokens.size();
+    }
+
+    /**
+     * Move the cursor to the next token.
+     */
+    public void advance() {
+        index++;
+    }
+
+    /**
+     * @return the type of the current token, or null if the cursor doesn't stand on a token.
+     */
+    public TokenType type() {
+        return typeAt(index);
+    }
+
+    /**
+     * @return the type of the token after the current one, or null if there is no such token.
+     */
+    public TokenType nextType() {
+        return typeAt(index + 1);
+    }
+
+    /**
+     * Look ahead of the current token, without moving the cursor. The tokens are already held by the buffer, so
+     * nothing is scanned nor allocated.
+     * @param distance distance of the token from the current one, between 1 and MAX_LOOKAHEAD; 1 is the next token.
+     * @return the type of the token, or null if there is no such token.
+     * @throws IllegalArgumentException if the distance exceeds the lookahead of the grammar.
+     */
+    public TokenType peek(int distance) {
+        if (distance < 1 || distance > MAX_LOOKAHEAD) {
+            throw new IllegalArgumentException("Lookahead out of range: " + distance);
+        }
+        return typeAt(index + distance);
+    }
+
+    /**
+     * @return the value of the current token, as a new String.
+     */
+    public String value() {
+        return tokens.value(index);
+    }
+
+    /**
+     * @return the decoded value of the current integer constant token.
+     */
+    public int intValue() {
+        return tokens.intValue(index);
+    }
+
+    /**
+     * @return the line of the current token.
+     */
+    public int line() {
+        return tokens.line(index);
+    }
+
+    /* Get the type of the token at the given index, or null if out of bounds. */
+    private TokenType typeAt(int at) {
+        if (at < 0 || at >= tokens.size()) {
+            return null;
+        }
+        return tokens.type(at);
+    }
+}
@@ -1,88 +1,119 @@
 package main.Lexer;
 
-import java.util.regex.Pattern;
-
 /**
- * This enum represent the known allowed tokens in a sJava file and their corresponding attributes.
+ * This enum represent the known allowed tokens in a Jack file and their corresponding attributes.
+ * Symbols and keywords carry their fixed lexeme, which the Tokenizer automaton uses to recognize them.
  */
 public enum TokenType {
 
     // Jack language symbols
-    L_BRACE(Pattern.compile("\\{")),
-    R_BRACE(Pattern.compile("}")),
-    L_PAREN(Pattern.compile("\\(")),
-    R_PAREN(Pattern.compile("\\)")),
-    L_BOX_PAREN(Pattern.compile("\\[")),
-    R_BOX_PAREN(Pattern.compile("\\]")),
-    DOT(Pattern.compile("\\.")),
-    COMMA(Pattern.compile(",")),
-    SEMICOLON(Pattern.compile(";")),
-    PLUS(Pattern.compile("\\+")),
-    MINUS(Pattern.compile("-")),
-    TIMES(Pattern.compile("\\*")),
-    DIVIDER(Pattern.compile("\\\\")),
-    AND(Pattern.compile("&")),
-    OR(Pattern.compile("\\|")),
-    LT(Pattern.compile("<")),
-    GT(Pattern.compile(">")),
-    EQ(Pattern.compile("=")),
-    NOT(Pattern.compile("~")),
+    L_BRACE("{"),
+    R_BRACE("}"),
+    L_PAREN("("),
+    R_PAREN(")"),
+    L_BOX_PAREN("["),
+    R_BOX_PAREN("]"),
+    DOT("."),
+    COMMA(","),
+    SEMICOLON(";"),
+    PLUS("+"),
+    MINUS("-"),
+    TIMES("*"),
+    DIVIDER("/"),
+    AND("&"),
+    OR("|"),
+    LT("<"),
+    GT(">"),
+    EQ("="),
+    NOT("~"),
 
     // Jack language keywords
-    CLASS(Pattern.compile("class(?!\\w)")),
-    CONSTRUCTOR(Pattern.compile("constructor\\b")),
-    FUNCTION(Pattern.compile("function\\b")),
-    METHOD(Pattern.compile("method\\b")),
-    FIELD(Pattern.compile("field\\b")),
-    STATIC(Pattern.compile("static\\b")),
-    VAR(Pattern.compile("var\\b")),
-    INT(Pattern.compile("int\\b")),
-    CHAR(Pattern.compile("char\\b")),
-    BOOLEAN(Pattern.compile("boolean\\b")),
-    VOID(Pattern.compile("void\\b")),
-    TRUE(Pattern.compile("true(?!\\w)")),
-    FALSE(Pattern.compile("false(?!\\w)")),
-    NULL(Pattern.compile("null\\b")),
-    THIS(Pattern.compile("this(?!\\w)")),
-    LET(Pattern.compile("let\\b")),
-    DO(Pattern.compile("do\\b")),
-    IF(Pattern.compile("if(?:(?=\\()|(?=\\s))")),
-    ELSE(Pattern.compile("else(?!\\w)")),
-    WHILE(Pattern.compile("while(?:(?=\\()|(?=\\s))")),
-    RETURN(Pattern.compile("return")),
+    CLASS("class"),
+    CONSTRUCTOR("constructor"),
+    FUNCTION("function"),
+    METHOD("method"),
+    FIELD("field"),
+    STATIC("static"),
+    VAR("var"),
+    INT("int"),
+    CHAR("char"),
+    BOOLEAN("boolean"),
+    VOID("void"),
+    TRUE("true"),
+    FALSE("false"),
+    NULL("null"),
+    THIS("this"),
+    LET("let"),
+    DO("do"),
+    IF("if"),
+    ELSE("else"),
+    WHILE("while"),
+    RETURN("return"),
+
+    INTEGER_CONSTANT(true),
+    STRING_CONSTANT(true),
 
-    INTEGER_CONSTANT(Pattern.compile("-?\\d++(?!\\.)"), true), // Possessive quantifier is important
-    STRING_CONSTANT(Pattern.compile("\"[^\"\\\\',]*\""), true),
+    ID(true),
 
-    ID(Pattern.compile("(?:_\\w+)|(?:[a-zA-Z]\\w*)"), true);
+    // Chars that start no Jack token, or an unclosed block comment
+    ERROR(true);
 
-    private Pattern pattern;
+    private String lexeme;
     private boolean isTokenValueExpected;
 
     /**
-     * TokenType initialized with a pattern.
-     * @param pattern the designated pattern
+     * TokenType initialized with a fixed lexeme (symbols and keywords).
+     * @param lexeme the exact text of the token.
      */
-    TokenType(Pattern pattern)
+    TokenType(String lexeme)
     {
-        this.pattern = pattern;
+        this.lexeme = lexeme;
         this.isTokenValueExpected = false;
     }
 
     /**
-     * TokenType initialized with pattern and value expected constructor.
-     * @param pattern the designated pattern
+     * TokenType initialized with value expected constructor.
      * @param isTokenValueExpected true when value is expected. */
-    TokenType(Pattern pattern, boolean isTokenValueExpected) {
-        this.pattern = pattern;
+    TokenType(boolean isTokenValueExpected) {
+        this.lexeme = null;
         this.isTokenValueExpected = isTokenValueExpected;
     }
 
     /**
-     * @return the pattern for the token type.
+     * @return the fixed lexeme of the token type, or null if the token carries a value.
+     */
+    String getLexeme() {
+        return this.lexeme;
+    }
+
+    /**
+     * @return true if the token type is a Jack keyword.
+     */
+    boolean isKeyword() {
+        return lexeme != null && Character.isLetter(lexeme.charAt(0));
+    }
+
+    /**
+     * @return the lexical category of the token type, as named by the token XML: keyword, symbol, integerConstant,
+     * stringConstant or identifier, or error for an ERROR token.
      */
-    Pattern getPattern() {
-        return this.pattern;
+    public String getXmlCategory() {
+        if (isKeyword()) {
+            return "keyword";
+        }
+        if (lexeme != null) {
+            return "symbol";
+        }
+        switch (this) {
+            case INTEGER_CONSTANT:
+                return "integerConstant";
+            case STRING_CONSTANT:
+                return "stringConstant";
+            case ERROR:
+                return "error";
+            default:
+                return "identifier";
+        }
     }
 
     /**
@@ -1,87 +1,323 @@
 package main.Lexer;
 
 import java.util.*;
-import java.util.regex.*;
 
 /**
- * This class generate a stream of tokens for given lines.
+ * This class generate a stream of tokens for a given source, which may be a single line or a whole file.
+ * The tokenizer keeps its state across lines: line and block comments are skipped, and every token records the line
+ * and column it starts at.
+ * Tokens are recognized by a hand-written deterministic automaton: a single switch on the current char selects
+ * the symbol, or the keyword/identifier, integer or string scanning loop.
+ * A char that starts no token becomes an ERROR token of its own, and scanning resumes right after it, so a single
+ * bad char doesn't hide the rest of the source; an unclosed block comment becomes an ERROR token up to the end.
  */
 public class Tokenizer implements Iterator<Token>, Iterable<Token> {
 
-    private static final String LINE_COMMENT_REGEX = "^//.+";
     private static final String ILLEGAL_METHOD_PREFIX = "_";
+    private static final int ASCII_SIZE = 128;
 
-    private String line;
+    /* Keywords grouped by their first char, used to resolve an identifier into a keyword. */
+    private static final TokenType[][] keywordsByInitial = new TokenType[ASCII_SIZE][];
+    static {
+        for (TokenType tokenType : TokenType.values()) {
+            if (tokenType.isKeyword()) {
+                char initial = tokenType.getLexeme().charAt(0);
+                TokenType[] bucket = keywordsByInitial[initial];
+                bucket = (bucket == null) ? new TokenType[1] : Arrays.copyOf(bucket, bucket.length + 1);
+                bucket[bucket.length - 1] = tokenType;
+                keywordsByInitial[initial] = bucket;
+            }
+        }
+    }
+
+    private CharSequence source;
     private int position;
+    private int lineNumber;
+    private int lineStart;
+    private int tokenStart;
+    private int tokenLine;
+    private int tokenColumn;
+    private int tokenIntValue;
 
     /**
      * Create a new Tokenizer iterator object.
-     * @param line the given line to iterate over.
+     * @param source the given source to iterate over, a single line or a whole file.
+     */
+    public Tokenizer(CharSequence source) {
+        reset(source);
+    }
+
+    /**
+     * Rebind the tokenizer to a new source, so the same tokenizer can be reused for several sources.
+     * @param source the given source to iterate over, a single line or a whole file.
      */
-    public Tokenizer(String line) {
-        this.line = line;
+    public void reset(CharSequence source) {
+        this.source = source;
         this.position = 0;
-        // todo - add /* comments.
-        if (isComment(line)) { // line comments define empty iterator.
-            position = line.length();
-        } else {
-            skipWhitespace();
-        }
+        this.lineNumber = 1;
+        this.lineStart = 0;
+        skipWhitespace();
     }
 
     @Override
     public boolean hasNext() {
-        return position < line.length();
+        return position < source.length();
+    }
+
+    /**
+     * @return the line number (starting at 1) the iterator currently stands on.
+     */
+    public int getLineNumber() {
+        return lineNumber;
     }
 
     @Override
     public Token next() {
-        Token currToken = getTokenFromPosition();
+        TokenType tokenType = scanToken();
+        Token currToken = createTokenForMatchedPattern(tokenType);
         skipWhitespace();
         return currToken;
     }
 
-    /* This method gets the matched token from the current position of the iterator. */
-    private Token getTokenFromPosition() {
-        int prev_position = position;
-        // Iterate through available TokenTypes and check if matches remained line
-        for(TokenType tokenType : TokenType.values()) {
-            if (match(tokenType.getPattern())) {
-                return createTokenForMatchedPattern(prev_position, tokenType);
+    /**
+     * Append all the remaining tokens of the source into the given buffer, without creating Token objects.
+     * The buffer is cleared first.
+     * @param tokens the buffer to fill.
+     * @return the given buffer.
+     */
+    public TokenBuffer tokenize(TokenBuffer tokens) {
+        tokens.reset(source);
+        while (hasNext()) {
+            TokenType tokenType = scanToken();
+            tokens.add(tokenType, tokenStart, position - tokenStart, tokenLine, tokenColumn, tokenIntValue);
+            skipWhitespace();
+        }
+        tokens.setLineCount(lineCount());
+        return tokens;
+    }
+
+    /* This method counts the lines of the source, once the iterator reached its end: the line it stands on, unless
+     * the source ends with a line terminator, which doesn't start another line. */
+    private int lineCount() {
+        if (source.length() == 0) {
+            return 0;
+        }
+        return (source.charAt(source.length() - 1) == '\n') ? lineNumber - 1 : lineNumber;
+    }
+
+    /**
+     * Tokenize the whole given source into a new token buffer.
+     * @param source the source to tokenize.
+     * @return buffer holding all the tokens of the source.
+     */
+    public static TokenBuffer tokenize(CharSequence source) {
+        return new Tokenizer(source).tokenize(new TokenBuffer());
+    }
+
+    /* This method scans the token at the current position of the iterator and returns its type. */
+    private TokenType scanToken() {
+        tokenStart = position;
+        tokenLine = lineNumber;
+        tokenColumn = position - lineStart + 1;
+        tokenIntValue = 0;
+        char c = source.charAt(position);
+        switch (c) {
+            case '{': return matchSymbol(TokenType.L_BRACE);
+            case '}': return matchSymbol(TokenType.R_BRACE);
+            case '(': return matchSymbol(TokenType.L_PAREN);
+            case ')': return matchSymbol(TokenType.R_PAREN);
+            case '[': return matchSymbol(TokenType.L_BOX_PAREN);
+            case ']': return matchSymbol(TokenType.R_BOX_PAREN);
+            case '.': return matchSymbol(TokenType.DOT);
+            case ',': return matchSymbol(TokenType.COMMA);
+            case ';': return matchSymbol(TokenType.SEMICOLON);
+            case '+': return matchSymbol(TokenType.PLUS);
+            case '-': return matchSymbol(TokenType.MINUS);
+            case '*': return matchSymbol(TokenType.TIMES);
+            case '/':
+                if (lookingAt(position + 1, '*')) {
+                    return matchUnclosedBlockComment();
+                }
+                return matchSymbol(TokenType.DIVIDER);
+            case '&': return matchSymbol(TokenType.AND);
+            case '|': return matchSymbol(TokenType.OR);
+            case '<': return matchSymbol(TokenType.LT);
+            case '>': return matchSymbol(TokenType.GT);
+            case '=': return matchSymbol(TokenType.EQ);
+            case '~': return matchSymbol(TokenType.NOT);
+            case '"':
+                if (scanStringConstant()) {
+                    return TokenType.STRING_CONSTANT;
+                }
+                break;
+            default:
+                if (isDigit(c)) {
+                    if (scanIntegerConstant()) {
+                        return TokenType.INTEGER_CONSTANT;
+                    }
+                } else if (scanIdentifier()) {
+                    return keywordOrId(tokenStart);
+                }
+        }
+        position = tokenStart + 1;
+        return TokenType.ERROR;
+    }
+
+    /* This method consumes a single char symbol. */
+    private TokenType matchSymbol(TokenType tokenType) {
+        position++;
+        return tokenType;
+    }
+
+    /* This method consumes a block comment left unclosed by skipWhitespace, along with the rest of the source. */
+    private TokenType matchUnclosedBlockComment() {
+        for (; position < source.length(); position++) {
+            if (source.charAt(position) == '\n') {
+                newLine(position + 1);
             }
         }
-        position = line.length();
-        throw new UnknownTokenException();
+        return TokenType.ERROR;
+    }
+
+    /* This method consumes a run of digits, decoding them on the way (saturating at Integer.MAX_VALUE).
+     * Fails when the digits are followed by a dot. */
+    private boolean scanIntegerConstant() {
+        long value = 0;
+        while (position < source.length() && isDigit(source.charAt(position))) {
+            value = Math.min(value * 10 + (source.charAt(position) - '0'), Integer.MAX_VALUE);
+            position++;
+        }
+        tokenIntValue = (int) value;
+        return position == source.length() || source.charAt(position) != '.';
+    }
+
+    /* This method consumes a string constant, starting at its opening double quote. As the language defines it, the
+     * constant may hold any char but a double quote and a line terminator. */
+    private boolean scanStringConstant() {
+        for (int i = position + 1; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '"') {
+                position = i + 1;
+                return true;
+            }
+            if (c == '\n' || c == '\r') {
+                return false;
+            }
+        }
+        return false;
+    }
+
+    /* This method consumes an identifier. A leading underscore must be followed by at least one word char. */
+    private boolean scanIdentifier() {
+        char first = source.charAt(position);
+        int end = position + 1;
+        if (first == '_') {
+            if (end == source.length() || !isWordChar(source.charAt(end))) {
+                return false;
+            }
+        } else if (!isLetter(first)) {
+            return false;
+        }
+        while (end < source.length() && isWordChar(source.charAt(end))) {
+            end++;
+        }
+        position = end;
+        return true;
+    }
+
+    /* This method resolves the identifier just scanned into a keyword type, or ID if it isn't a keyword. */
+    private TokenType keywordOrId(int start) {
+        TokenType[] candidates = keywordsByInitial[source.charAt(start)];
+        if (candidates != null) {
+            int length = position - start;
+            for (TokenType keyword : candidates) {
+                if (SourceSlice.contentEquals(source, start, length, keyword.getLexeme())) {
+                    return keyword;
+                }
+            }
+        }
+        return TokenType.ID;
     }
 
     /* This method creates a token for the matched pattern. */
-    private Token createTokenForMatchedPattern(int prev_position, TokenType tokenType) {
+    private Token createTokenForMatchedPattern(TokenType tokenType) {
         if (tokenType.isTokenValueExpected()) {
-            return new Token(tokenType, line.substring(prev_position, position));
+            return new Token(tokenType, new SourceSlice(source, tokenStart, position), tokenIntValue, tokenLine,
+                    tokenColumn);
         } else {
-            return new Token(tokenType);
+            return new Token(tokenType, tokenLine, tokenColumn);
         }
     }
 
-    /* This methods moves the iterator position to the next char that isn't a whitespace. */
+    /* This methods moves the iterator position to the next char that isn't a whitespace or part of a comment. */
     private void skipWhitespace() {
-        while (position < line.length() &&
-                Character.isWhitespace(line.charAt(position))) {
+        while (position < source.length()) {
+            char c = source.charAt(position);
+            if (c == '\n') {
+                newLine(++position);
+            } else if (Character.isWhitespace(c)) {
+                position++;
+            } else if (c == '/' && lookingAt(position + 1, '/')) {
+                skipLineComment();
+            } else if (c == '/' && lookingAt(position + 1, '*')) {
+                if (!skipBlockComment()) {
+                    return;
+                }
+            } else {
+                return;
+            }
+        }
+    }
+
+    /* This method skips a "//" comment up to the end of the line. */
+    private void skipLineComment() {
+        while (position < source.length() && source.charAt(position) != '\n') {
             position++;
         }
     }
 
-    /* This function checks the given pattern to the line position given. */
-    private boolean match(Pattern pattern) {
-        Matcher matcher = pattern.matcher(line);
-        matcher.region(position, line.length());
-        if (matcher.lookingAt()) {
-            position = matcher.end();
-            return true;
+    /* This method skips a block comment (including a doc comment), which may span several lines. Returns false,
+     * leaving the comment to be scanned as a token, if it isn't closed. */
+    private boolean skipBlockComment() {
+        int commentLineNumber = lineNumber;
+        int commentLineStart = lineStart;
+        for (int i = position + 2; i < source.length(); i++) {
+            char c = source.charAt(i);
+            if (c == '\n') {
+                newLine(i + 1);
+            } else if (c == '*' && lookingAt(i + 1, '/')) {
+                position = i + 2;
+                return true;
+            }
         }
+        lineNumber = commentLineNumber;
+        lineStart = commentLineStart;
         return false;
     }
 
+    /* This method records that a new line starts at the given position. */
+    private void newLine(int start) {
+        lineNumber++;
+        lineStart = start;
+    }
+
+    /* Determine whether the char at the given position is the expected one. */
+    private boolean lookingAt(int index, char expected) {
+        return index < source.length() && source.charAt(index) == expected;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private static boolean isWordChar(char c) {
+        return isLetter(c) || isDigit(c) || c == '_';
+    }
+
     @Override
     public Iterator<Token> iterator() {
         return this;
@@ -89,22 +325,11 @@ public class Tokenizer implements Iterator<Token>, Iterable<Token> {
 
     /**
      * This function validates that the method's name doesn't start with ILLEGAL_METHOD_PREFIX.
-     * Otherwise, throws an exception.
      * @param methodName The name of the method to check.
+     * @return true if and only if the name is a valid method name.
      */
-    public static void validateMethodName(String methodName) throws UnknownTokenException {
-        if (methodName.startsWith(ILLEGAL_METHOD_PREFIX)) {
-            throw new UnknownTokenException();
-        }
-    }
-
-    /**
-     * Determine whether the given line represent a valid comment.
-     * @param line input to check.
-     * @return true if and only if given line represent a valid comment.
-     */
-    public static boolean isComment(String line) {
-        return line.matches(LINE_COMMENT_REGEX);
+    public static boolean isValidMethodName(String methodName) {
+        return !methodName.startsWith(ILLEGAL_METHOD_PREFIX);
     }
 
 }
@@ -0,0 +1,197 @@
+package main.Lexer;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static main.Lexer.TokenType.*;
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenizerTest {
+
+    @Test
+    void testSymbols() {
+        assertTypes("{}()[].,;+-*/&|<>=~", L_BRACE, R_BRACE, L_PAREN, R_PAREN, L_BOX_PAREN, R_BOX_PAREN, DOT,
+                COMMA, SEMICOLON, PLUS, MINUS, TIMES, DIVIDER, AND, OR, LT, GT, EQ, NOT);
+    }
+
+    @Test
+    void testKeywords() {
+        assertTypes("class constructor function method field static var int char boolean void",
+                CLASS, CONSTRUCTOR, FUNCTION, METHOD, FIELD, STATIC, VAR, INT, CHAR, BOOLEAN, VOID);
+        assertTypes("true false null this let do if else while return",
+                TRUE, FALSE, NULL, THIS, LET, DO, IF, ELSE, WHILE, RETURN);
+    }
+
+    @Test
+    void testKeywordPrefixIsIdentifier() {
+        assertTypes("classy int2 letter ifx _do", ID, ID, ID, ID, ID);
+    }
+
+    @Test
+    void testValues() {
+        List<Token> tokens = tokenize("let a_1 = -12 + \"hi there\";");
+        assertEquals("a_1", tokens.get(1).getValue());
+        assertEquals(MINUS, tokens.get(3).getType());
+        assertEquals("12", tokens.get(4).getValue());
+        assertEquals("\"hi there\"", tokens.get(6).getValue());
+        assertNull(tokens.get(7).getValue());
+    }
+
+    @Test
+    void testSubroutineCall() {
+        assertTypes("do Output.printInt(x[2]);", DO, ID, DOT, ID, L_PAREN, ID, L_BOX_PAREN, INTEGER_CONSTANT,
+                R_BOX_PAREN, R_PAREN, SEMICOLON);
+    }
+
+    @Test
+    void testUnknownCharsAreErrorTokens() {
+        assertTypes("let x = 7.2;", LET, ID, EQ, ERROR, DOT, INTEGER_CONSTANT, SEMICOLON);
+        assertTypes("let _ = 1;", LET, ERROR, EQ, INTEGER_CONSTANT, SEMICOLON);
+        assertTypes("let x = #;\nlet y = $ $;", LET, ID, EQ, ERROR, SEMICOLON, LET, ID, EQ, ERROR, ERROR, SEMICOLON);
+        Token error = tokenize("let x = #;\nlet y = $;").get(8);
+        assertEquals("$", error.getValue());
+        assertPosition(error, 2, 9);
+    }
+
+    @Test
+    void testLineComment() {
+        assertTrue(tokenize("// let x = 1;").isEmpty());
+        assertTypes("let x = 1; // x is one\nreturn;", LET, ID, EQ, INTEGER_CONSTANT, SEMICOLON, RETURN, SEMICOLON);
+    }
+
+    @Test
+    void testBlockComments() {
+        assertTypes("/** doc\n * comment */ class /* a } b */ Main {\n/* multi\nline */}", CLASS, ID, L_BRACE, R_BRACE);
+        assertTypes("x / y", ID, DIVIDER, ID);
+        List<Token> tokens = tokenize("class /* unterminated\n Main {");
+        assertEquals(2, tokens.size());
+        assertEquals(ERROR, tokens.get(1).getType());
+        assertEquals("/* unterminated\n Main {", tokens.get(1).getValue());
+        assertPosition(tokens.get(1), 1, 7);
+        assertEquals(2, Tokenizer.tokenize("class /* unterminated\n Main {").getLineCount());
+    }
+
+    @Test
+    void testPositions() {
+        List<Token> tokens = tokenize("class Main {\n  /* c */ field int x;\n}");
+        assertPosition(tokens.get(0), 1, 1);
+        assertPosition(tokens.get(2), 1, 12);
+        assertPosition(tokens.get(3), 2, 11);
+        assertPosition(tokens.get(5), 2, 21);
+        assertPosition(tokens.get(7), 3, 1);
+    }
+
+    @Test
+    void testLineCount() {
+        assertEquals(0, Tokenizer.tokenize("").getLineCount());
+        assertEquals(1, Tokenizer.tokenize("return;").getLineCount());
+        assertEquals(1, Tokenizer.tokenize("return;\n").getLineCount());
+        assertEquals(3, Tokenizer.tokenize("return;\r\n\n// done").getLineCount());
+    }
+
+    @Test
+    void testStringConstantHoldsAnyChar() {
+        List<Token> tokens = tokenize("do Output.printString(\"a, b's \\\\ #\");");
+        assertEquals(STRING_CONSTANT, tokens.get(5).getType());
+        assertEquals("\"a, b's \\\\ #\"", tokens.get(5).getValue());
+        assertEquals(R_PAREN, tokens.get(6).getType());
+    }
+
+    @Test
+    void testStringConstantEndsOnLine() {
+        assertTypes("let s = \"abc\ndef\";", LET, ID, EQ, ERROR, ID, ID, ERROR, SEMICOLON);
+    }
+
+    @Test
+    void testTokenBufferMatchesTokenStream() {
+        String source = "class Main {\n  function void main() {\n    do Output.printString(\"hi\"); // out\n  }\n}";
+        List<Token> tokens = tokenize(source);
+        TokenBuffer buffer = Tokenizer.tokenize(source);
+        assertEquals(tokens.size(), buffer.size());
+        for (int i = 0; i < tokens.size(); i++) {
+            assertEquals(tokens.get(i).getType(), buffer.type(i));
+            assertEquals(tokens.get(i).getValue(), buffer.value(i));
+            assertPosition(tokens.get(i), buffer.line(i), buffer.column(i));
+        }
+    }
+
+    @Test
+    void testTokenCursor() {
+        TokenCursor cursor = new TokenCursor(Tokenizer.tokenize("let x = 1;"));
+        assertNull(cursor.type());
+        assertEquals(LET, cursor.nextType());
+        cursor.advance();
+        cursor.advance();
+        assertEquals(ID, cursor.type());
+        assertEquals("x", cursor.value());
+        assertEquals(EQ, cursor.nextType());
+        cursor.advance();
+        cursor.advance();
+        cursor.advance();
+        assertFalse(cursor.hasNext());
+        assertNull(cursor.nextType());
+    }
+
+    @Test
+    void testTokenCursorLookahead() {
+        TokenCursor cursor = new TokenCursor(Tokenizer.tokenize("do f(x);"));
+        assertEquals(DO, cursor.peek(1));
+        assertEquals(ID, cursor.peek(2));
+        cursor.advance();
+        assertEquals(ID, cursor.peek(1));
+        assertEquals(L_PAREN, cursor.peek(2));
+        assertEquals(DO, cursor.type());
+        cursor.moveTo(4);
+        assertEquals(SEMICOLON, cursor.peek(1));
+        assertNull(cursor.peek(2));
+        assertThrows(IllegalArgumentException.class, () -> cursor.peek(0));
+        assertThrows(IllegalArgumentException.class, () -> cursor.peek(TokenCursor.MAX_LOOKAHEAD + 1));
+    }
+
+    @Test
+    void testZeroCopyValues() {
+        String source = "let total = 32767 + count;";
+        TokenBuffer buffer = Tokenizer.tokenize(source);
+        assertEquals(32767, buffer.intValue(3));
+        assertEquals("32767", buffer.text(3).toString());
+        CharSequence count = buffer.text(5);
+        assertEquals(5, count.length());
+        assertEquals('c', count.charAt(0));
+        assertEquals("ount", count.subSequence(1, 5).toString());
+        assertEquals(32767, tokenize(source).get(3).getIntValue());
+    }
+
+    @Test
+    void testMatchingBraces() {
+        TokenBuffer buffer = Tokenizer.tokenize("{ if (x) { } else {\n let a = 1; } } }");
+        assertEquals(15, buffer.matchingBrace(0));
+        assertEquals(0, buffer.matchingBrace(15));
+        assertEquals(6, buffer.matchingBrace(5));
+        assertEquals(14, buffer.matchingBrace(8));
+        assertEquals(-1, buffer.matchingBrace(16));
+        assertEquals(-1, buffer.matchingBrace(1));
+        assertEquals(-1, Tokenizer.tokenize("{ {").matchingBrace(0));
+    }
+
+    private void assertPosition(Token token, int line, int column) {
+        assertEquals(line, token.getLine());
+        assertEquals(column, token.getColumn());
+    }
+
+    private void assertTypes(String line, TokenType... expected) {
+        List<Token> tokens = tokenize(line);
+        assertEquals(expected.length, tokens.size());
+        for (int i = 0; i < expected.length; i++) {
+            assertEquals(expected[i], tokens.get(i).getType());
+        }
+    }
+
+    private List<Token> tokenize(String line) {
+        List<Token> tokens = new ArrayList<>();
+        for (Token token : new Tokenizer(line)) {
+            tokens.add(token);
+        }
+        return tokens;
+    }
+}
@@ -1,25 +1,234 @@
 package main;
 
 import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.*;
+import main.AnalysisSession.FileResult;
 import main.Interpreter.*;
 
 /**
- * Main program driver; receive an jack file and interprets it according to the language specification.
+ * Main program driver; receive jack files or directories and interprets every jack file according to the language
+ * specification. Files are analyzed in parallel, while the report is printed per file, in a deterministic order.
+ * The same driver serves the requests of the Daemon, on a session shared by all the requests.
  */
 public class Main {
 
+    private static final String JACK_FILE_SUFFIX = ".jack";
+    private static final String THREADS_FLAG = "-j";
+    private static final String CONCURRENT_METHODS_FLAG = "-m";
+    private static final String XML_DIRECTORY_FLAG = "-x";
+    private static final String METRICS_FLAG = "-t";
+    private static final String PROFILE_FLAG = "-p";
+    private static final String CACHE_DIRECTORY_FLAG = "-c";
+    private static final String USAGE = "Usage: Main [-j threads] [-m] [-x xmlDirectory] [-t] [-p profileFile] "
+            + "[-c cacheDirectory] <file.jack | directory>...";
+    static final int SUCCESS_EXIT_CODE = 0;
+    static final int ERROR_EXIT_CODE = 1;
+    static final int USAGE_EXIT_CODE = 2;
 
-    private static final int NUMBER_OF_ARGUMENTS = 1;
     /**
-     * Received an Jack program to interpret according to Jack language specification.
-     * @param args expects one argument, the path to the Jackfile (absolute or relative).
+     * Received Jack programs to interpret according to Jack language specification.
+     * @param args paths to Jack files or to directories holding Jack files (absolute or relative), optionally preceded
+     *             by "-j threads" to set the number of files analyzed in parallel (defaults to the number of cores),
+     *             by "-m" to also verify the methods of every file concurrently, by "-x xmlDirectory" to write
+     *             the token XML and parse tree XML of every file to the given directory, under the path of the file
+     *             relative to the directory it was found under, by "-t" to print the
+     *             metrics of every file to the standard output, a JSON object per line, by "-p profileFile" to
+     *             write the time spent in every grammar rule stack, over all the files, as folded stacks, and by
+     *             "-c cacheDirectory" to keep the results in the given directory, so the files whose content didn't
+     *             change since are skipped by the next runs, metrics included.
      */
     public static void main(String[] args) {
-        // todo: check if argument is path and run over all files accordingly
+        int exitCode = run(args, Paths.get(""), System.out, System.err, null);
+        if (exitCode != SUCCESS_EXIT_CODE) {
+            System.exit(exitCode);
+        }
+    }
+
+    /**
+     * Run the driver with the given arguments, as main does.
+     * @param args the arguments, as given to main.
+     * @param workingDirectory the directory relative paths are resolved against.
+     * @param out the stream the metrics are printed to.
+     * @param err the stream the errors are printed to.
+     * @param session the session to analyze the files on, or null to analyze them on a session of their own, with
+     *                the number of threads given by the arguments.
+     * @return the exit code: 0 if every file is valid, 1 if any failed, and 2 if the arguments are invalid.
+     */
+    static int run(String[] args, Path workingDirectory, PrintStream out, PrintStream err, AnalysisSession session) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        boolean concurrentMethods = false;
+        Path xmlDirectory = null;
+        boolean printMetrics = false;
+        Path profileFile = null;
+        Path cacheDirectory = null;
+        List<String> paths = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                if (args[i].equals(THREADS_FLAG)) {
+                    threads = Integer.parseInt(args[++i]);
+                } else if (args[i].equals(CONCURRENT_METHODS_FLAG)) {
+                    concurrentMethods = true;
+                } else if (args[i].equals(XML_DIRECTORY_FLAG)) {
+                    xmlDirectory = workingDirectory.resolve(args[++i]);
+                } else if (args[i].equals(METRICS_FLAG)) {
+                    printMetrics = true;
+                } else if (args[i].equals(PROFILE_FLAG)) {
+                    profileFile = workingDirectory.resolve(args[++i]);
+                } else if (args[i].equals(CACHE_DIRECTORY_FLAG)) {
+                    cacheDirectory = workingDirectory.resolve(args[++i]);
+                } else {
+                    paths.add(args[i]);
+                }
+            }
+        } catch (NumberFormatException | ArrayIndexOutOfBoundsException | InvalidPathException e) {
+            paths.clear();
+        }
+        if (paths.isEmpty() || threads < 1) {
+            err.println(USAGE);
+            return USAGE_EXIT_CODE;
+        }
+
+        boolean failed;
+        AnalysisSession runSession = (session == null) ? new AnalysisSession(threads, false) : session;
+        try {
+            ResultCache resultCache = (cacheDirectory == null) ? null : new ResultCache(cacheDirectory);
+            List<JackFile> jackFiles = collectJackFiles(workingDirectory, paths);
+            Map<Path, Path> xmlDirectories = (xmlDirectory == null) ? null
+                    : createXmlDirectories(xmlDirectory, jackFiles);
+            RuleProfiler profiler = (profileFile == null) ? null : new RuleProfiler();
+            failed = analyze(runSession, jackFiles, concurrentMethods, xmlDirectories, printMetrics, profiler,
+                    resultCache, out, err);
+            if (profiler != null) {
+                try (Writer writer = Files.newBufferedWriter(profileFile)) {
+                    profiler.writeFolded(writer);
+                }
+            }
+        } catch (IOException | InvalidPathException e) {
+            err.println(e.getMessage());
+            failed = true;
+        } finally {
+            if (session == null) {
+                runSession.close();
+            }
+        }
+        return failed ? ERROR_EXIT_CODE : SUCCESS_EXIT_CODE;
+    }
+
+    /* A jack file to analyze: its path, resolved against the working directory, the path it's reported by, relative
+     * to the working directory as the path it was given or found under, and the directory holding it relative to the
+     * directory it was found under (empty for a file given directly). */
+    private static class JackFile {
+        private final Path file;
+        private final Path reportedPath;
+        private final Path directory;
+
+        JackFile(Path file, Path reportedPath, Path directory) {
+            this.file = file;
+            this.reportedPath = reportedPath;
+            this.directory = directory;
+        }
+    }
+
+    /* Collect the jack files given directly, or found under the given directories, sorted by the paths they're
+     * reported by, so the report doesn't depend on the directory the paths were resolved against. */
+    private static List<JackFile> collectJackFiles(Path workingDirectory, List<String> paths) throws IOException {
+        SortedMap<Path, JackFile> jackFiles = new TreeMap<>();
+        Set<Path> collected = new HashSet<>();
+        for (String path : paths) {
+            Path given = Paths.get(path);
+            Path root = workingDirectory.resolve(given);
+            if (Files.isDirectory(root)) {
+                try (Stream<Path> files = Files.walk(root)) {
+                    files.filter(Main::isJackFile).filter(collected::add).forEach(file -> {
+                        Path reportedPath = given.resolve(root.relativize(file));
+                        jackFiles.put(reportedPath,
+                                new JackFile(file, reportedPath, root.relativize(file.getParent())));
+                    });
+                }
+            } else if (Files.exists(root)) {
+                if (collected.add(root)) {
+                    jackFiles.put(given, new JackFile(root, given, Paths.get("")));
+                }
+            } else {
+                throw new NoSuchFileException(path);
+            }
+        }
+        return new ArrayList<>(jackFiles.values());
+    }
+
+    /* Create the directory the XML files of every jack file are written to: its relative directory under the given
+     * XML directory, so files of the same name found in different directories don't overwrite each other's XML
+     * files. Fails if two files would still write the same XML files, e.g. files of the same name given directly. */
+    private static Map<Path, Path> createXmlDirectories(Path xmlDirectory, List<JackFile> jackFiles)
+            throws IOException {
+        Map<Path, Path> xmlDirectories = new HashMap<>();
+        Map<Path, Path> writers = new HashMap<>();
+        for (JackFile jackFile : jackFiles) {
+            Path directory = xmlDirectory.resolve(jackFile.directory);
+            String baseName = Interpreter.getXmlBaseName(jackFile.file);
+            Path writer = writers.putIfAbsent(directory.resolve(baseName), jackFile.reportedPath);
+            if (writer != null) {
+                throw new IOException(writer + " and " + jackFile.reportedPath + " would both write the XML files of "
+                        + baseName + " to " + directory + ".");
+            }
+            xmlDirectories.put(jackFile.file, Files.createDirectories(directory));
+        }
+        return xmlDirectories;
+    }
+
+    /* Determine whether the given path is a regular jack file. */
+    private static boolean isJackFile(Path path) {
+        return Files.isRegularFile(path) && path.getFileName().toString().endsWith(JACK_FILE_SUFFIX);
+    }
 
-        String file = args[0];
+    /* Interpret the given files on the pool of the given session, then report the errors in the order of the files,
+     * every error of a file on a line of its own, prefixed by the path the file is reported by.
+     * When concurrentMethods is set, the methods of every file are verified on the same pool.
+     * When xmlDirectories is set, the XML files of every file are written to its directory.
+     * When printMetrics is set, the metrics of every file are printed, in the order of the files as well, named by
+     * the path the file is reported by.
+     * When profiler is set, every file is profiled on its own, and the profiles are merged into it.
+     * When resultCache is set, the files found in it are skipped, and the results of the others are stored in it.
+     * Returns true if any of the files failed. */
+    private static boolean analyze(AnalysisSession session, List<JackFile> jackFiles, boolean concurrentMethods,
+                                   Map<Path, Path> xmlDirectories, boolean printMetrics, RuleProfiler profiler,
+                                   ResultCache resultCache, PrintStream out, PrintStream err) {
+        List<Future<FileResult>> results = new ArrayList<>(jackFiles.size());
+        for (JackFile jackFile : jackFiles) {
+            Path xmlDirectory = (xmlDirectories == null) ? null : xmlDirectories.get(jackFile.file);
+            results.add(session.submit(jackFile.file, concurrentMethods, xmlDirectory, profiler != null,
+                    resultCache));
+        }
+        boolean failed = false;
+        for (int i = 0; i < jackFiles.size(); i++) {
+            FileResult result = awaitResult(results.get(i));
+            Path reportedPath = jackFiles.get(i).reportedPath;
+            for (String error : result.errors) {
+                err.println(reportedPath + ": " + error);
+                failed = true;
+            }
+            if (printMetrics && result.metrics != null) {
+                out.println(result.metrics.toJson(reportedPath.toString()));
+            }
+            if (profiler != null && result.profiler != null) {
+                profiler.merge(result.profiler);
+            }
+        }
+        return failed;
+    }
 
-        Interpreter interpreter = new Interpreter(file);
-        interpreter.interpret();
+    /* Wait for the result of a single file. */
+    private static FileResult awaitResult(Future<FileResult> result) {
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            return new FileResult(Collections.singletonList(e.getCause().toString()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return new FileResult(Collections.singletonList(e.toString()));
+        }
     }
 }
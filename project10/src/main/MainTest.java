@@ -0,0 +1,50 @@
+package main;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MainTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testXmlFilesMirrorTheFoundFiles() throws IOException {
+        writeMain(directory.resolve("src/a"), "first");
+        writeMain(directory.resolve("src/b"), "second");
+
+        assertEquals(Main.SUCCESS_EXIT_CODE, run("-x", "xml", "src"));
+        assertTrue(Files.readString(directory.resolve("xml/a/MainT.xml")).contains(" first "));
+        assertTrue(Files.readString(directory.resolve("xml/b/MainT.xml")).contains(" second "));
+        assertTrue(Files.exists(directory.resolve("xml/a/Main.xml")));
+        assertTrue(Files.exists(directory.resolve("xml/b/Main.xml")));
+    }
+
+    @Test
+    void testXmlFilesOfSameNameFail() throws IOException {
+        writeMain(directory.resolve("a"), "first");
+        writeMain(directory.resolve("b"), "second");
+
+        assertEquals(Main.ERROR_EXIT_CODE, run("-x", "xml", "a/Main.jack", "b/Main.jack"));
+        assertFalse(Files.exists(directory.resolve("xml/MainT.xml")));
+        assertEquals(Main.SUCCESS_EXIT_CODE, run("-x", "xml", "a/Main.jack"));
+    }
+
+    private void writeMain(Path parent, String functionName) throws IOException {
+        Files.createDirectories(parent);
+        Files.writeString(parent.resolve("Main.jack"),
+                "class Main { function void " + functionName + "() { return; } }");
+    }
+
+    private int run(String... args) {
+        ByteArrayOutputStream output = new ByteArrayOutputStream();
+        PrintStream stream = new PrintStream(output, true, StandardCharsets.UTF_8);
+        return Main.run(args, directory, stream, stream, null);
+    }
+}
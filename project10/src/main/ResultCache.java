@@ -0,0 +1,311 @@
+package main;
+
+import java.io.*;
+import java.net.URISyntaxException;
+import java.net.URL;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.stream.Stream;
+import main.Interpreter.*;
+import main.Lexer.TokenType;
+import main.Scope.*;
+
+/**
+ * Persistent cache of analysis results, kept in a directory across runs: the result of a file is stored under the
+ * SHA-256 hash of its content and of the analyzer version, so a file whose content didn't change isn't analyzed again,
+ * however old the result is, and a new analyzer never reads the results of an older one.
+ * An entry holds the errors of the file, its class scope (the class variables and the subroutines it declares) and,
+ * if they were asked for, the XML files it emitted, so a run asking for them can write them without analyzing.
+ * Entries are written in a compact binary format, to a temporary file first and then moved into place, so concurrent
+ * runs sharing the directory never read a partial entry. They are read through a memory map.
+ * Entry format, big endian, strings as their UTF-8 length (int) followed by their UTF-8 bytes:
+ * magic (int), analyzer version (32 bytes), whether XML files were asked for (byte),
+ * error count (int), then per error: code, message, line (int), column (int),
+ * class variable count (int), then per variable: name, type, attributes (byte),
+ * subroutine count (int), then per subroutine: name, return type, return attributes (byte), parameter count (int),
+ * then per parameter: name, type, attributes (byte),
+ * XML file count (int), then per XML file: name suffix (the file name after the base name of the analyzed file, as
+ * files with the same content share their entry), length (int), content.
+ */
+class ResultCache {
+
+    /* The SHA-256 hash of the classes of the analyzer, so any rebuild changing them ignores the older entries. */
+    static final byte[] ANALYZER_VERSION = analyzerVersion();
+    private static final int MAGIC = 0x4A4B5243;
+    private static final String ENTRY_SUFFIX = ".bin";
+    private static final String TEMPORARY_SUFFIX = ".tmp";
+    private static final int KEY_PREFIX_LENGTH = 2;
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Path directory;
+
+    /**
+     * Constructs new cache kept in the given directory, creating it if it's missing.
+     * @param directory the directory of the cache.
+     * @throws IOException if the directory can't be created.
+     */
+    ResultCache(Path directory) throws IOException {
+        this.directory = Files.createDirectories(directory);
+    }
+
+    /**
+     * A cached result: the errors, the class scope and the XML files of a single file. An entry made without asking
+     * for the XML files has none; an entry made asking for them has the files written before the analysis stopped.
+     */
+    static class Entry {
+        final List<Diagnostic> diagnostics;
+        final Scope classScope;
+        final boolean withXml;
+        final Map<String, byte[]> xmlFiles;
+
+        Entry(List<Diagnostic> diagnostics, Scope classScope, boolean withXml, Map<String, byte[]> xmlFiles) {
+            this.diagnostics = diagnostics;
+            this.classScope = classScope;
+            this.withXml = withXml;
+            this.xmlFiles = xmlFiles;
+        }
+    }
+
+    /**
+     * Compute the key of the given file content.
+     * @param content the content of the file.
+     * @return the SHA-256 hash of the analyzer version and of the content, in hex.
+     */
+    static String key(byte[] content) {
+        MessageDigest digest = newDigest();
+        digest.update(ANALYZER_VERSION);
+        byte[] hash = digest.digest(content);
+        char[] hex = new char[hash.length * 2];
+        for (int i = 0; i < hash.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(hash[i] >> 4) & 0xF];
+            hex[2 * i + 1] = HEX_DIGITS[hash[i] & 0xF];
+        }
+        return new String(hex);
+    }
+
+    /* Compute the analyzer version: the hash of the jar the analyzer is loaded from, or of the class files under the
+     * directory it's loaded from, by their relative paths. If they can't be read, the version is random, so the
+     * entries of this run are never read by another run, rather than risking the reading of stale results. */
+    private static byte[] analyzerVersion() {
+        MessageDigest digest = newDigest();
+        try {
+            URL location = ResultCache.class.getProtectionDomain().getCodeSource().getLocation();
+            Path classes = Paths.get(location.toURI());
+            if (Files.isDirectory(classes)) {
+                List<Path> classFiles;
+                try (Stream<Path> files = Files.walk(classes)) {
+                    classFiles = files.filter(file -> file.toString().endsWith(".class")).sorted().toList();
+                }
+                for (Path classFile : classFiles) {
+                    digest.update(classes.relativize(classFile).toString().getBytes(StandardCharsets.UTF_8));
+                    digest.update(Files.readAllBytes(classFile));
+                }
+            } else {
+                digest.update(Files.readAllBytes(classes));
+            }
+        } catch (IOException | URISyntaxException | RuntimeException e) {
+            digest.update(UUID.randomUUID().toString().getBytes(StandardCharsets.UTF_8));
+        }
+        return digest.digest();
+    }
+
+    /* Get a new SHA-256 digest. */
+    private static MessageDigest newDigest() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Load the entry stored under the given key.
+     * @param key the key of the entry.
+     * @return the entry, or null if there is none, or it can't be read, e.g. if it was written by another format.
+     */
+    Entry load(String key) {
+        Path entryFile = entryFile(key);
+        try (FileChannel channel = FileChannel.open(entryFile, StandardOpenOption.READ)) {
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return readEntry(buffer);
+        } catch (IOException | BufferUnderflowException | IllegalArgumentException e) {
+            // Missing, or unreadable: either way, the file is analyzed again, and its entry replaced.
+            return null;
+        }
+    }
+
+    /**
+     * Store an entry under the given key, replacing the entry stored under it, if any.
+     * @param key the key of the entry.
+     * @param entry the entry to store.
+     * @throws IOException if the entry can't be written.
+     */
+    void store(String key, Entry entry) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(bytes)) {
+            writeEntry(output, entry);
+        }
+        Path entryFile = entryFile(key);
+        Files.createDirectories(entryFile.getParent());
+        Path temporaryFile = Files.createTempFile(entryFile.getParent(), key, TEMPORARY_SUFFIX);
+        try {
+            Files.write(temporaryFile, bytes.toByteArray());
+            try {
+                Files.move(temporaryFile, entryFile, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporaryFile, entryFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+    }
+
+    /* Get the file of the entry stored under the given key; the entries are spread over subdirectories named by the
+     * first digits of their keys, so no single directory grows too large. */
+    private Path entryFile(String key) {
+        return directory.resolve(key.substring(0, KEY_PREFIX_LENGTH))
+                .resolve(key.substring(KEY_PREFIX_LENGTH) + ENTRY_SUFFIX);
+    }
+
+    /* Write an entry in the binary format. */
+    private static void writeEntry(DataOutputStream output, Entry entry) throws IOException {
+        output.writeInt(MAGIC);
+        output.write(ANALYZER_VERSION);
+        output.writeBoolean(entry.withXml);
+        output.writeInt(entry.diagnostics.size());
+        for (Diagnostic diagnostic : entry.diagnostics) {
+            writeString(output, diagnostic.getCode().name());
+            writeString(output, diagnostic.getMessage());
+            output.writeInt(diagnostic.getLineNumber());
+            output.writeInt(diagnostic.getColumn());
+        }
+        List<Map.Entry<String, VariableSymbol>> variables = new ArrayList<>();
+        entry.classScope.getVariables().forEach(variables::add);
+        output.writeInt(variables.size());
+        for (Map.Entry<String, VariableSymbol> variable : variables) {
+            writeVariable(output, variable.getKey(), variable.getValue());
+        }
+        List<Map.Entry<String, MethodSymbol>> methods = new ArrayList<>();
+        entry.classScope.getMethods().forEach(methods::add);
+        output.writeInt(methods.size());
+        for (Map.Entry<String, MethodSymbol> method : methods) {
+            writeVariable(output, method.getKey(), method.getValue().getReturnType());
+            output.writeInt(method.getValue().getParameterCount());
+            for (Map.Entry<String, VariableSymbol> parameter : method.getValue()) {
+                writeVariable(output, parameter.getKey(), parameter.getValue());
+            }
+        }
+        output.writeInt(entry.xmlFiles.size());
+        for (Map.Entry<String, byte[]> xmlFile : entry.xmlFiles.entrySet()) {
+            writeString(output, xmlFile.getKey());
+            output.writeInt(xmlFile.getValue().length);
+            output.write(xmlFile.getValue());
+        }
+    }
+
+    /* Read an entry in the binary format. */
+    private static Entry readEntry(ByteBuffer input) {
+        if (input.getInt() != MAGIC) {
+            throw new IllegalArgumentException("Not an entry of this analyzer.");
+        }
+        byte[] version = new byte[ANALYZER_VERSION.length];
+        input.get(version);
+        if (!Arrays.equals(version, ANALYZER_VERSION)) {
+            throw new IllegalArgumentException("Not an entry of this analyzer.");
+        }
+        boolean withXml = input.get() != 0;
+        int diagnosticCount = input.getInt();
+        List<Diagnostic> diagnostics = new ArrayList<>();
+        for (int i = 0; i < diagnosticCount; i++) {
+            ErrorCode code = ErrorCode.valueOf(readString(input));
+            String message = readString(input);
+            diagnostics.add(new Diagnostic(code, message, input.getInt(), input.getInt()));
+        }
+        Scope classScope = new Scope();
+        try {
+            int variableCount = input.getInt();
+            for (int i = 0; i < variableCount; i++) {
+                String name = readString(input);
+                classScope.addVariable(name, readVariable(input));
+            }
+            int methodCount = input.getInt();
+            for (int i = 0; i < methodCount; i++) {
+                String name = readString(input);
+                MethodSymbol method = new MethodSymbol(readVariable(input));
+                int parameterCount = input.getInt();
+                for (int j = 0; j < parameterCount; j++) {
+                    String parameterName = readString(input);
+                    method.addParameter(parameterName, readVariable(input));
+                }
+                classScope.addMethod(name, method);
+            }
+        } catch (SymbolAlreadyExistsException e) {
+            throw new IllegalArgumentException("Duplicate symbol in entry.");
+        }
+        int xmlFileCount = input.getInt();
+        Map<String, byte[]> xmlFiles = new LinkedHashMap<>();
+        for (int i = 0; i < xmlFileCount; i++) {
+            String fileName = readString(input);
+            byte[] content = new byte[readLength(input)];
+            input.get(content);
+            xmlFiles.put(fileName, content);
+        }
+        return new Entry(diagnostics, classScope, withXml, xmlFiles);
+    }
+
+    /* Write the type and the attributes of a variable, after its name. */
+    private static void writeVariable(DataOutputStream output, String name, VariableSymbol variable)
+            throws IOException {
+        writeString(output, name);
+        writeString(output, variable.getType().name());
+        byte attributes = 0;
+        for (VariableSymbol.Attribute attribute : VariableSymbol.Attribute.values()) {
+            if (variable.isActivated(attribute)) {
+                attributes |= 1 << attribute.ordinal();
+            }
+        }
+        output.writeByte(attributes);
+    }
+
+    /* Read the type and the attributes of a variable, following its name. */
+    private static VariableSymbol readVariable(ByteBuffer input) {
+        VariableSymbol variable = new VariableSymbol(TokenType.valueOf(readString(input)));
+        byte attributes = input.get();
+        for (VariableSymbol.Attribute attribute : VariableSymbol.Attribute.values()) {
+            if ((attributes & (1 << attribute.ordinal())) != 0) {
+                variable.toggle(attribute);
+            }
+        }
+        return variable;
+    }
+
+    /* Write a string as its UTF-8 length followed by its UTF-8 bytes. */
+    private static void writeString(DataOutputStream output, String string) throws IOException {
+        byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+        output.writeInt(bytes.length);
+        output.write(bytes);
+    }
+
+    /* Read a string written by writeString. */
+    private static String readString(ByteBuffer input) {
+        byte[] bytes = new byte[readLength(input)];
+        input.get(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /* Read the length of the bytes that follow it, checking they are all there. */
+    private static int readLength(ByteBuffer input) {
+        int length = input.getInt();
+        if (length < 0 || length > input.remaining()) {
+            throw new IllegalArgumentException("Invalid length.");
+        }
+        return length;
+    }
+}
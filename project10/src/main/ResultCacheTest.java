@@ -0,0 +1,95 @@
+package main;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.stream.Stream;
+import main.Interpreter.*;
+import main.Lexer.TokenType;
+import main.Scope.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ResultCacheTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void testEntryRoundTrip() throws Exception {
+        Scope classScope = new Scope();
+        classScope.addVariable("count", new VariableSymbolBuilder(TokenType.INT).build());
+        MethodSymbol add = new MethodSymbol(new VariableSymbol(TokenType.VOID));
+        add.addParameter("amount", new VariableSymbolBuilder(TokenType.INT).makeFinal().build());
+        classScope.addMethod("add", add);
+        Map<String, byte[]> xmlFiles = new LinkedHashMap<>();
+        xmlFiles.put("CounterT.xml", "<tokens>\n</tokens>\n".getBytes(StandardCharsets.UTF_8));
+        List<Diagnostic> diagnostics = Collections.singletonList(
+                new Diagnostic(ErrorCode.UNDECLARED_VARIABLE, "Variable y is not declared.", 4, 17));
+
+        ResultCache cache = new ResultCache(directory);
+        String key = ResultCache.key("class Counter {}".getBytes(StandardCharsets.UTF_8));
+        cache.store(key, new ResultCache.Entry(diagnostics, classScope, true, xmlFiles));
+        ResultCache.Entry entry = new ResultCache(directory).load(key);
+
+        assertNotNull(entry);
+        assertTrue(entry.withXml);
+        assertEquals(diagnostics.get(0).toString(), entry.diagnostics.get(0).toString());
+        assertEquals(17, entry.diagnostics.get(0).getColumn());
+        assertEquals(TokenType.INT, entry.classScope.lookupVariable("count").getType());
+        MethodSymbol method = entry.classScope.lookupMethod("add");
+        assertEquals(TokenType.VOID, method.getReturnType().getType());
+        assertEquals(1, method.getParameterCount());
+        VariableSymbol amount = method.iterator().next().getValue();
+        assertTrue(amount.isActivated(VariableSymbol.Attribute.FINAL));
+        assertFalse(entry.classScope.lookupVariable("count").isActivated(VariableSymbol.Attribute.FINAL));
+        assertArrayEquals(xmlFiles.get("CounterT.xml"), entry.xmlFiles.get("CounterT.xml"));
+    }
+
+    @Test
+    void testKeyDependsOnContent() throws IOException {
+        ResultCache cache = new ResultCache(directory);
+        byte[] content = "class A {}".getBytes(StandardCharsets.UTF_8);
+        assertEquals(ResultCache.key(content), ResultCache.key(content.clone()));
+        assertNotEquals(ResultCache.key(content), ResultCache.key("class B {}".getBytes(StandardCharsets.UTF_8)));
+        assertEquals(64, ResultCache.key(content).length());
+    }
+
+    @Test
+    void testMissingOrCorruptEntryIsMiss() throws IOException {
+        ResultCache cache = new ResultCache(directory);
+        String key = ResultCache.key(new byte[0]);
+        assertNull(cache.load(key));
+
+        cache.store(key, new ResultCache.Entry(Collections.emptyList(), new Scope(), false, Collections.emptyMap()));
+        Path entryFile;
+        try (Stream<Path> files = Files.walk(directory)) {
+            entryFile = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+        }
+        byte[] bytes = Files.readAllBytes(entryFile);
+        Files.write(entryFile, Arrays.copyOf(bytes, bytes.length - 2));
+        assertNull(cache.load(key));
+        Files.write(entryFile, new byte[] {1, 2, 3, 4, 5, 6, 7, 8});
+        assertNull(cache.load(key));
+    }
+
+    @Test
+    void testEntryOfAnotherAnalyzerIsMiss() throws IOException {
+        ResultCache cache = new ResultCache(directory);
+        String key = ResultCache.key(new byte[0]);
+        cache.store(key, new ResultCache.Entry(Collections.emptyList(), new Scope(), false, Collections.emptyMap()));
+        Path entryFile;
+        try (Stream<Path> files = Files.walk(directory)) {
+            entryFile = files.filter(Files::isRegularFile).findFirst().orElseThrow();
+        }
+        assertNotNull(cache.load(key));
+        byte[] bytes = Files.readAllBytes(entryFile);
+        bytes[Integer.BYTES] ^= 1;
+        Files.write(entryFile, bytes);
+        assertNull(cache.load(key));
+    }
+}
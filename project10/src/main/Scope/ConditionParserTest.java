@@ -2,6 +2,7 @@ package main;
 
 import main.Interpreter.*;
 import main.Lexer.TokenType;
+import main.Lexer.Tokenizer;
 import main.Scope.Scope;
 import main.Scope.VariableSymbolBuilder;
 import org.junit.jupiter.api.*;
@@ -12,18 +13,14 @@ import static org.junit.jupiter.api.Assertions.*;
 class ConditionParserTest {
     private static Scope scope = new Scope();
 
-    // Builds a generic scope with these properties:
-    // #1 - uninitialized and non-final, #2 - initialized and non-final,
-    // #3 - uninitialized and final, #4 - initialized and final.
+    // Builds a generic scope with two variables of each type.
     static {
         try {
-            TokenType[] varTypes = new TokenType[] { INT, BOOLEAN, DOUBLE, CHAR, STRING };
+            TokenType[] varTypes = new TokenType[] { INT, BOOLEAN, CHAR };
             for (TokenType varType : varTypes) {
                 char firstLetter = varType.toString().toLowerCase().charAt(0);
                 scope.addVariable(firstLetter + "1", new VariableSymbolBuilder(varType).build());
-                scope.addVariable(firstLetter + "2", new VariableSymbolBuilder(varType).makeInitialized().build());
-                scope.addVariable(firstLetter + "3", new VariableSymbolBuilder(varType).makeFinal().build());
-                scope.addVariable(firstLetter + "4", new VariableSymbolBuilder(varType).makeInitialized().makeFinal().build());
+                scope.addVariable(firstLetter + "2", new VariableSymbolBuilder(varType).build());
             }
         } catch (Exception e){
 
@@ -36,42 +33,36 @@ class ConditionParserTest {
             testCorrectCondition(conditionType, "true");
             testCorrectCondition(conditionType, "false");
             testCorrectCondition(conditionType, "-7");
-            testCorrectCondition(conditionType, "7.2");
-            testCorrectCondition(conditionType, "7 && 6");
-            testCorrectCondition(conditionType, "7 || 6");
-            testCorrectCondition(conditionType, "b2 && b4 && i2  ");
+            testCorrectCondition(conditionType, "~(7 = 6)");
+            testCorrectCondition(conditionType, "7 & 6");
+            testCorrectCondition(conditionType, "7 | 6");
+            testCorrectCondition(conditionType, "b2 & b1 & (i2 > c1)  ");
         }
     }
 
     @Test
     void testIncorrectConditions() {
         for (TokenType conditionType : new TokenType[] { IF, WHILE }) {
-            testIncorrectCondition(conditionType, "'a'", InvalidTokenForAssignment.class);
-            testIncorrectCondition(conditionType, "\"aaasgag\"", InvalidTokenForAssignment.class);
-            testIncorrectCondition(conditionType, "b1", UninitializedVariableUsageException.class);
-            testIncorrectCondition(conditionType, "b3", UninitializedVariableUsageException.class);
+            testIncorrectCondition(conditionType, "", UnexpectedTokenTypeException.class);
             testIncorrectCondition(conditionType, "b5", UndeclaredVariableUsageException.class);
-            testIncorrectCondition(conditionType, "b2 || i2 && b1", UninitializedVariableUsageException.class);
-            testIncorrectCondition(conditionType, "b2 || i2 && ", InvalidTokenForAssignment.class);
+            testIncorrectCondition(conditionType, "b2 | i2 & b5", UndeclaredVariableUsageException.class);
+            testIncorrectCondition(conditionType, "b2 | i2 & ", UnexpectedTokenTypeException.class);
+            testIncorrectCondition(conditionType, "(b2 | i2", UnexpectedTokenTypeException.class);
         }
     }
 
     private void testCorrectCondition(TokenType conditionType, String conditions) throws Exception {
-        Parser parser = new Parser(scope);
-        parser.parse(conditionType.toString().toLowerCase() + "(" + conditions + "){");
+        Parser parser = new Parser(Tokenizer.tokenize(toStatement(conditionType, conditions)), scope);
+        parser.parseStatement();
     }
 
     private void testIncorrectCondition(TokenType conditionType, String conditions, Class<? extends Throwable> exceptionClass) {
-        Parser parser = new Parser(scope);
-        try {
-            parser.parse(conditionType.toString().toLowerCase() + "(" + conditions + "){");
-        } catch (ParserException e) {
-            if (e.getCause() != null) {
-                assertEquals(exceptionClass, e.getCause().getClass());
-            }
-        } catch (Exception e) {
-            fail("");
-        }
+        Parser parser = new Parser(Tokenizer.tokenize(toStatement(conditionType, conditions)), scope);
+        ParserException e = assertThrows(ParserException.class, parser::parseStatement);
+        assertEquals(exceptionClass, e.getClass());
+    }
 
+    private static String toStatement(TokenType conditionType, String conditions) {
+        return conditionType.toString().toLowerCase() + "(" + conditions + ") { return; }";
     }
 }
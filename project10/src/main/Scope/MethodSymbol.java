@@ -33,6 +33,13 @@ public class MethodSymbol implements Iterable<Map.Entry<String, VariableSymbol>>
         parameters.add(paramName, paramSymbol);
     }
 
+    /**
+     * @return the number of parameters of the method.
+     */
+    public int getParameterCount() {
+        return parameters.size();
+    }
+
     /**
      * @return the Methods' return type.
      */
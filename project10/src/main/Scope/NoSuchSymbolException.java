@@ -0,0 +1,11 @@
+package main.Scope;
+
+public class NoSuchSymbolException extends RuntimeException {
+    /**
+     * A missing symbol is an expected outcome of a lookup, which the parser turns into a diagnostic of its own, so no
+     * stack trace is recorded.
+     */
+    NoSuchSymbolException() {
+        super("No such symbol.", null, false, false);
+    }
+}
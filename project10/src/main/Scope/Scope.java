@@ -5,11 +5,15 @@ import java.util.Map;
 /**
  * This class represents the scope object, this object holds all the variables and methods declared in the scope.
  * This class support scope chaining used to comply with the sJava language specification.
+ * A scope may also be a duplicate of another scope: it shares the symbols of the original scope instead of copying
+ * them, and only copies the methods table when a method is added to it.
  */
 public class Scope {
     private SymbolTable<VariableSymbol> variablesTable;
     private SymbolTable<MethodSymbol> methodsTable;
     private Scope prev;
+    private Scope shared;
+    private boolean ownsMethodsTable;
 
     /**
      * Construct new scope with empty symbol tables.
@@ -18,6 +22,8 @@ public class Scope {
         this.variablesTable = new SymbolTableImpl<>();
         this.methodsTable = new SymbolTableImpl<>();
         this.prev = null;
+        this.shared = null;
+        this.ownsMethodsTable = true;
     }
 
     /**
@@ -36,6 +42,9 @@ public class Scope {
      * @throws SymbolAlreadyExistsException when the variable already exists in the symbolTable.
      */
     public void addVariable(String identifier, VariableSymbol symbol) throws SymbolAlreadyExistsException {
+        if (shared != null && shared.findLocalVariable(identifier) != null) {
+            throw new SymbolAlreadyExistsException();
+        }
         this.variablesTable.add(identifier, symbol);
     }
 
@@ -46,9 +55,22 @@ public class Scope {
      * @throws SymbolAlreadyExistsException when the symbol already exists in the symbolTable.
      */
     public void addMethod(String methodName, MethodSymbol symbol) throws SymbolAlreadyExistsException {
+        if (!ownsMethodsTable) {
+            copyMethodsTable();
+        }
         this.methodsTable.add(methodName, symbol);
     }
 
+    /* Replace the methods table shared with the original scope by a private copy of it. */
+    private void copyMethodsTable() {
+        SymbolTable<MethodSymbol> methods = new SymbolTableImpl<>();
+        for (Map.Entry<String, MethodSymbol> entry : methodsTable) {
+            methods.add(entry.getKey(), entry.getValue());
+        }
+        methodsTable = methods;
+        ownsMethodsTable = true;
+    }
+
     /**
      * Perform a lookup for given identifier in the current scope and any scope enclosing it.
      * @param identifier name of the symbol needed
@@ -57,13 +79,25 @@ public class Scope {
      */
     public VariableSymbol lookupVariable(String identifier) throws NoSuchSymbolException {
         for (Scope scope = this; scope != null; scope = scope.prev) {
-            if (scope.variablesTable.contains(identifier)){
-                return scope.variablesTable.get(identifier);
+            VariableSymbol symbol = scope.findLocalVariable(identifier);
+            if (symbol != null) {
+                return symbol;
             }
         }
         throw new NoSuchSymbolException();
     }
 
+    /* Find the identifier in this scope only (including the symbols it shares), or null if not found. */
+    private VariableSymbol findLocalVariable(String identifier) {
+        for (Scope scope = this; scope != null; scope = scope.shared) {
+            VariableSymbol symbol = scope.variablesTable.find(identifier);
+            if (symbol != null) {
+                return symbol;
+            }
+        }
+        return null;
+    }
+
     /**
      * Perform a lookup for given method in the current scope and any scope enclosing it.
      * @param methodName the name of the method to find
@@ -72,8 +106,9 @@ public class Scope {
      */
     public MethodSymbol lookupMethod(String methodName) throws NoSuchSymbolException {
         for (Scope scope = this; scope != null; scope = scope.prev) {
-            if (scope.methodsTable.contains(methodName)){
-                return scope.methodsTable.get(methodName);
+            MethodSymbol symbol = scope.methodsTable.find(methodName);
+            if (symbol != null) {
+                return symbol;
             }
         }
         throw new NoSuchSymbolException();
@@ -81,19 +116,28 @@ public class Scope {
 
     /**
      * Perform a lookup for given method in the current scope and any scope enclosing it.
+     * Methods are ordered by declaration, so the ordinal matches the order of the method in the file.
      * @param methodOrdinal the order of the method in the sjava file.
      * @return the methodSymbol of the method searched.
      * @throws NoSuchSymbolException  when no methods with the given ID were found.
      */
     public MethodSymbol lookupMethod(int methodOrdinal) throws NoSuchSymbolException {
-        int i = 0;
-        for(Map.Entry<String, MethodSymbol> entry : methodsTable) {
-            if (i == methodOrdinal) {
-                return entry.getValue();
-            }
-            i++;
-        }
-        throw new NoSuchSymbolException();
+        return methodsTable.get(methodOrdinal);
+    }
+
+    /**
+     * @return the variables declared in this scope itself, in declaration order. A duplicate only holds the variables
+     * added to it, not the ones it shares.
+     */
+    public Iterable<Map.Entry<String, VariableSymbol>> getVariables() {
+        return variablesTable;
+    }
+
+    /**
+     * @return the methods of this scope, in declaration order.
+     */
+    public Iterable<Map.Entry<String, MethodSymbol>> getMethods() {
+        return methodsTable;
     }
 
     /**
@@ -104,19 +148,29 @@ public class Scope {
     }
 
     /**
-     * Duplicate the current scope, deep copying the Scopes attributes.
+     * @return the number of scopes in the chain ending at this scope, this scope included.
+     */
+    public int getDepth() {
+        int depth = 1;
+        for (Scope scope = prev; scope != null; scope = scope.prev) {
+            depth++;
+        }
+        return depth;
+    }
+
+    /**
+     * Duplicate the current scope in constant time. The duplicate shares the symbols of this scope instead of deep
+     * copying them: the variables added to the duplicate are kept apart, and the methods table is copied only when a
+     * method is added to the duplicate.
+     * Hence, this scope must not be changed while the duplicate is in use. Under that condition, several duplicates
+     * of the same scope may safely be used concurrently.
      * @return a new duplicated scope from the original one.
      */
     public Scope duplicate()  {
         Scope scope = new Scope();
-        try {
-            for (Map.Entry<String, VariableSymbol> entry : variablesTable) {
-                scope.variablesTable.add(entry.getKey(), new VariableSymbol(entry.getValue()));
-            }
-            scope.methodsTable = this.methodsTable;
-        } catch (SymbolAlreadyExistsException e) {
-            return scope;
-        }
+        scope.shared = this;
+        scope.methodsTable = this.methodsTable;
+        scope.ownsMethodsTable = false;
         return scope;
     }
 }
@@ -0,0 +1,56 @@
+package main.Scope;
+
+import main.Lexer.TokenType;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScopeTest {
+    private Scope global;
+
+    @BeforeEach
+    void createGlobalScope() {
+        global = new Scope();
+        global.addVariable("x", new VariableSymbolBuilder(TokenType.INT).build());
+        global.addMethod("run", new MethodSymbol(new VariableSymbol(TokenType.VOID)));
+    }
+
+    @Test
+    void testDuplicateSharesSymbols() {
+        Scope duplicate = global.duplicate();
+        assertSame(global.lookupVariable("x"), duplicate.lookupVariable("x"));
+        assertSame(global.lookupMethod("run"), duplicate.lookupMethod("run"));
+    }
+
+    @Test
+    void testDuplicateRejectsSharedIdentifier() {
+        Scope duplicate = global.duplicate();
+        assertThrows(SymbolAlreadyExistsException.class,
+                () -> duplicate.addVariable("x", new VariableSymbolBuilder(TokenType.INT).build()));
+        new Scope(duplicate).addVariable("x", new VariableSymbolBuilder(TokenType.CHAR).build());
+    }
+
+    @Test
+    void testAddedMethodIsPrivateToDuplicate() {
+        Scope duplicate = global.duplicate();
+        duplicate.addMethod("stop", new MethodSymbol(new VariableSymbol(TokenType.VOID)));
+        assertNotNull(duplicate.lookupMethod("stop"));
+        assertThrows(NoSuchSymbolException.class, () -> global.lookupMethod("stop"));
+    }
+
+    @Test
+    void testFailuresAreStackless() {
+        assertEquals(0, assertThrows(NoSuchSymbolException.class, () -> global.lookupVariable("y"))
+                .getStackTrace().length);
+        assertEquals(0, assertThrows(SymbolAlreadyExistsException.class,
+                () -> global.addMethod("run", new MethodSymbol(new VariableSymbol(TokenType.VOID))))
+                .getStackTrace().length);
+    }
+
+    @Test
+    void testDepth() {
+        assertEquals(1, global.getDepth());
+        assertEquals(1, global.duplicate().getDepth());
+        assertEquals(3, new Scope(new Scope(global)).getDepth());
+    }
+}
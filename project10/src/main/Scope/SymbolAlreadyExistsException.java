@@ -0,0 +1,11 @@
+package main.Scope;
+
+public class SymbolAlreadyExistsException extends RuntimeException {
+    /**
+     * A duplicate declaration is an expected outcome of adding a symbol, which the parser turns into a diagnostic of
+     * its own, so no stack trace is recorded.
+     */
+    SymbolAlreadyExistsException() {
+        super("Symbol already exists.", null, false, false);
+    }
+}
@@ -4,7 +4,7 @@ import java.util.Map;
 
 /**
  * Define a symbol table construct used to store identifiers (as keys) and their corresponding values (which may vary).
- * Identifiers represented as String object.
+ * Identifiers represented as String object. Entries are kept, and iterated, in insertion order.
  * @param <E> Type of symbol table values.
  */
 public interface SymbolTable<E> extends Iterable<Map.Entry<String, E>> {
@@ -31,4 +31,24 @@ public interface SymbolTable<E> extends Iterable<Map.Entry<String, E>> {
      * @return true if and only if this symbol table contains a mapping for the specified identifier.
      */
     boolean contains(String identifier);
+
+    /**
+     * Find the symbol of identifier, without failing when it is missing.
+     * @param identifier name of identifier.
+     * @return the symbol stored in the table matching the identifier name, or null if there is no such symbol.
+     */
+    E find(String identifier);
+
+    /**
+     * Get symbol by the order it was added to the table.
+     * @param ordinal the index of the symbol in insertion order, starting at 0.
+     * @return the symbol added at that position.
+     * @throws NoSuchSymbolException If the table holds no more than ordinal symbols.
+     */
+    E get(int ordinal) throws NoSuchSymbolException;
+
+    /**
+     * @return number of symbols in the table.
+     */
+    int size();
 }
@@ -4,39 +4,126 @@ import static java.util.Objects.*;
 
 /**
  * Symbol table implementation generic type Class.
+ * Identifiers are hashed into an open-addressing (linear probing) index, which points into arrays holding the entries
+ * in insertion order. Thus add and lookup take a single probe sequence, and a symbol can be taken by its ordinal in
+ * constant time.
  * @param <E> generic type.
  */
 public class SymbolTableImpl<E> implements SymbolTable<E> {
 
-    private SortedMap<String, E> table;
+    private static final int INITIAL_CAPACITY = 8;
+    private static final int EMPTY_SLOT = -1;
+
+    private int[] slots; // Index of the entry whose identifier hashes to the slot, or EMPTY_SLOT.
+    private String[] identifiers;
+    private Object[] values;
+    private int size;
 
     SymbolTableImpl() {
-        this.table = new TreeMap<>();
+        this.slots = new int[INITIAL_CAPACITY * 2];
+        Arrays.fill(slots, EMPTY_SLOT);
+        this.identifiers = new String[INITIAL_CAPACITY];
+        this.values = new Object[INITIAL_CAPACITY];
+        this.size = 0;
     }
 
     @Override
     public void add(String identifier, E value) throws SymbolAlreadyExistsException {
-        if (contains(identifier)) {
+        requireNonNull(value);
+        int slot = findSlot(requireNonNull(identifier));
+        if (slots[slot] != EMPTY_SLOT) {
             throw new SymbolAlreadyExistsException();
         }
-        table.put(identifier, requireNonNull(value));
+        if (size == identifiers.length) {
+            grow();
+            slot = findSlot(identifier);
+        }
+        slots[slot] = size;
+        identifiers[size] = identifier;
+        values[size] = value;
+        size++;
     }
 
     @Override
     public E get(String identifier) throws NoSuchSymbolException {
-        if (contains(identifier)) {
-            return table.get(identifier);
+        E value = find(identifier);
+        if (value == null) {
+            throw new NoSuchSymbolException();
         }
-        throw new NoSuchSymbolException();
+        return value;
     }
 
     @Override
     public boolean contains(String identifier) {
-        return table.containsKey(requireNonNull(identifier));
+        return find(identifier) != null;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E find(String identifier) {
+        int entry = slots[findSlot(requireNonNull(identifier))];
+        return (entry == EMPTY_SLOT) ? null : (E) values[entry];
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public E get(int ordinal) throws NoSuchSymbolException {
+        if (ordinal < 0 || ordinal >= size) {
+            throw new NoSuchSymbolException();
+        }
+        return (E) values[ordinal];
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /* Find the slot holding the given identifier, or the empty slot where it should be placed. */
+    private int findSlot(String identifier) {
+        int mask = slots.length - 1;
+        int hash = identifier.hashCode();
+        for (int slot = (hash ^ (hash >>> 16)) & mask; ; slot = (slot + 1) & mask) {
+            int entry = slots[slot];
+            if (entry == EMPTY_SLOT || identifiers[entry].equals(identifier)) {
+                return slot;
+            }
+        }
+    }
+
+    /* Double the entries capacity and rebuild the index, keeping it at most half full. */
+    private void grow() {
+        int capacity = identifiers.length * 2;
+        identifiers = Arrays.copyOf(identifiers, capacity);
+        values = Arrays.copyOf(values, capacity);
+        slots = new int[capacity * 2];
+        Arrays.fill(slots, EMPTY_SLOT);
+        for (int entry = 0; entry < size; entry++) {
+            slots[findSlot(identifiers[entry])] = entry;
+        }
     }
 
     @Override
     public Iterator<Map.Entry<String, E>> iterator() {
-        return table.entrySet().iterator();
+        return new Iterator<Map.Entry<String, E>>() {
+            private int entry = 0;
+
+            @Override
+            public boolean hasNext() {
+                return entry < size;
+            }
+
+            @Override
+            @SuppressWarnings("unchecked")
+            public Map.Entry<String, E> next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                Map.Entry<String, E> next = new AbstractMap.SimpleImmutableEntry<>(identifiers[entry],
+                        (E) values[entry]);
+                entry++;
+                return next;
+            }
+        };
     }
 }
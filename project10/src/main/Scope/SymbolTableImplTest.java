@@ -0,0 +1,51 @@
+package main.Scope;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SymbolTableImplTest {
+
+    @Test
+    void testAddAndGet() {
+        SymbolTable<Integer> table = new SymbolTableImpl<>();
+        for (int i = 0; i < 1000; i++) {
+            table.add("id" + i, i);
+        }
+        assertEquals(1000, table.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, table.get("id" + i));
+            assertEquals(i, table.get(i));
+        }
+        assertNull(table.find("id1000"));
+        assertFalse(table.contains("id1000"));
+        assertThrows(NoSuchSymbolException.class, () -> table.get("id1000"));
+        assertThrows(NoSuchSymbolException.class, () -> table.get(1000));
+    }
+
+    @Test
+    void testDuplicateIdentifier() {
+        SymbolTable<Integer> table = new SymbolTableImpl<>();
+        table.add("a", 1);
+        assertThrows(SymbolAlreadyExistsException.class, () -> table.add("a", 2));
+        assertEquals(1, table.get("a"));
+        assertEquals(1, table.size());
+    }
+
+    @Test
+    void testInsertionOrder() {
+        SymbolTable<Integer> table = new SymbolTableImpl<>();
+        String[] identifiers = { "zeta", "alpha", "mu", "beta" };
+        for (int i = 0; i < identifiers.length; i++) {
+            table.add(identifiers[i], i);
+        }
+        int i = 0;
+        for (Map.Entry<String, Integer> entry : table) {
+            assertEquals(identifiers[i], entry.getKey());
+            assertEquals(i++, entry.getValue());
+        }
+        assertEquals(identifiers.length, i);
+    }
+}
@@ -11,8 +11,7 @@ public class VariableSymbol {
      * This enum declares all the available attributes of the variable.
      */
     public enum Attribute {
-        FINAL(0x01),
-        INITIALIZED(0x02);
+        FINAL(0x01);
 
         private int bitPosition;
 
@@ -44,15 +44,6 @@ public class VariableSymbolBuilder {
         return this;
     }
 
-    /**
-     * Activates the initialized attribute of the variable.
-     * @return this VariableSymbolBuilder
-     */
-    public VariableSymbolBuilder makeInitialized() {
-        this.variableSymbol.toggle(Attribute.INITIALIZED);
-        return this;
-    }
-
     /**
      * This function builds the VariableSymbol with the specified characteristics.
      * @return the variableSymbol created.